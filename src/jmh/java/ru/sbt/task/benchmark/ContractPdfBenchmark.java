@@ -0,0 +1,89 @@
+package ru.sbt.task.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.repository.ContractRepository;
+import ru.sbt.task.service.ContractPdfRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Формирование PDF договора: только рендеринг, вместе с загрузкой договора по id
+ * и прежний рендеринг с разбором шрифта на каждый документ для сравнения.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContractPdfBenchmark {
+
+    @State(Scope.Thread)
+    public static class Input {
+        SplittableRandom random = new SplittableRandom(7);
+        Contract contract;
+
+        @Setup(Level.Trial)
+        public void load(SeededDatabase db) {
+            contract = db.bean(ContractRepository.class).findWithDetailsById(db.contractIds.get(0)).orElseThrow();
+        }
+
+        Long nextId(SeededDatabase db) {
+            return db.contractIds.get(random.nextInt(db.contractIds.size()));
+        }
+    }
+
+    @Benchmark
+    public byte[] render(SeededDatabase db, Input input) throws IOException {
+        return db.bean(ContractPdfRenderer.class).render(input.contract);
+    }
+
+    @Benchmark
+    public byte[] loadAndRender(SeededDatabase db, Input input) throws IOException {
+        Contract contract = db.bean(ContractRepository.class).findWithDetailsById(input.nextId(db)).orElseThrow();
+        return db.bean(ContractPdfRenderer.class).render(contract);
+    }
+
+    // Прежний способ для сравнения: шрифт читается с classpath и разбирается заново для каждого документа
+    @Benchmark
+    public byte[] legacyRender(SeededDatabase db, Input input) throws IOException {
+        String[] lines = db.bean(ContractPdfRenderer.class).describe(input.contract).split("\n");
+        try (PDDocument doc = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            doc.addPage(page);
+            PDFont font = PDType0Font.load(doc, ContractPdfBenchmark.class.getResourceAsStream("/fonts/arial.ttf"));
+
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                cs.beginText();
+                cs.setLeading(16f);
+                cs.newLineAtOffset(50, 700);
+                cs.setFont(font, 14);
+                cs.showText(lines[0]);
+                cs.newLine();
+                cs.newLine();
+                cs.setFont(font, 12);
+                for (int i = 1; i < lines.length; i++) {
+                    cs.showText(lines[i]);
+                    cs.newLine();
+                }
+                cs.endText();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+}
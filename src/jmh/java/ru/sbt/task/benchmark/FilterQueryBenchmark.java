@@ -0,0 +1,80 @@
+package ru.sbt.task.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.sbt.task.model.entity.Client;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.Employee;
+import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.model.entity.Procuration;
+import ru.sbt.task.model.repository.ClientRepository;
+import ru.sbt.task.model.repository.ContractRepository;
+import ru.sbt.task.model.repository.EmployeeRepository;
+import ru.sbt.task.model.repository.PointRepository;
+import ru.sbt.task.model.repository.ProcurationRepository;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтры гридов {@code findBy...ContainingIgnoreCase} по каждому репозиторию.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterQueryBenchmark {
+
+    private static final String[] NAME_FRAGMENTS = {"иван", "смир", "петров", "серг", "алексан", "ович", "козл", "юрий"};
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 50, Sort.by("id"));
+
+    @State(Scope.Thread)
+    public static class Input {
+        SplittableRandom random = new SplittableRandom(11);
+
+        // Часть имени, как при наборе в поле фильтра
+        String nameFragment() {
+            return NAME_FRAGMENTS[random.nextInt(NAME_FRAGMENTS.length)];
+        }
+    }
+
+    @Benchmark
+    public List<Client> clientsByName(SeededDatabase db, Input input) {
+        return db.bean(ClientRepository.class).findByFullNameContainingIgnoreCase(input.nameFragment());
+    }
+
+    @Benchmark
+    public List<Client> clientsByNamePage(SeededDatabase db, Input input) {
+        return db.bean(ClientRepository.class).findByFullNameContainingIgnoreCase(input.nameFragment(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Contract> contractsByClientName(SeededDatabase db, Input input) {
+        return db.bean(ContractRepository.class).findByClientFullNameContainingIgnoreCase(input.nameFragment(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public long countContractsByClientName(SeededDatabase db, Input input) {
+        return db.bean(ContractRepository.class).countByClientFullNameContainingIgnoreCase(input.nameFragment());
+    }
+
+    @Benchmark
+    public List<Employee> employeesByName(SeededDatabase db, Input input) {
+        return db.bean(EmployeeRepository.class).findByFullNameContainingIgnoreCase(input.nameFragment());
+    }
+
+    @Benchmark
+    public List<Point> pointsByName(SeededDatabase db, Input input) {
+        return db.bean(PointRepository.class).findByNameContainingIgnoreCase(String.valueOf(input.random.nextInt(db.points)));
+    }
+
+    @Benchmark
+    public List<Procuration> procurationsByNumber(SeededDatabase db, Input input) {
+        return db.bean(ProcurationRepository.class).findByNumberContainingIgnoreCase(String.valueOf(input.random.nextInt(100)));
+    }
+}
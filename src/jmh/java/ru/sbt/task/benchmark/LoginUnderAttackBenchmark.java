@@ -0,0 +1,80 @@
+package ru.sbt.task.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import ru.sbt.task.service.LoginAttemptLimiter;
+import ru.sbt.task.service.LoginService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Вход обычного пользователя, пока остальные потоки группы перебирают пароли к чужому логину
+ * с одного и с разных адресов. Интересна задержка {@code underAttack:legitimate}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoginUnderAttackBenchmark {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private LoginService loginService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        Map<String, String> hashes = Map.of(
+                "admin", encoder.encode("admin"),
+                "operator", encoder.encode("secret"));
+        AuthenticationManager manager = auth -> {
+            String hash = hashes.get(auth.getName());
+            if (hash == null || !encoder.matches(String.valueOf(auth.getCredentials()), hash)) {
+                throw new BadCredentialsException("bad credentials");
+            }
+            return UsernamePasswordAuthenticationToken.authenticated(auth.getName(), null, List.of());
+        };
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(10, 50, Duration.ofMinutes(1), 4096);
+        loginService = new LoginService(manager, limiter, 2, 32);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        loginService.shutdown();
+    }
+
+    @Benchmark
+    @Group("underAttack")
+    @GroupThreads(1)
+    public Authentication legitimate() {
+        return loginService.authenticate("operator", "secret", "192.168.0.10").join();
+    }
+
+    @Benchmark
+    @Group("underAttack")
+    @GroupThreads(16)
+    public Object attack() {
+        int n = attempts.incrementAndGet();
+        // Половина атакует с одного адреса, половина с разных
+        String address = n % 2 == 0 ? "10.0.0.1" : "10.0.1." + (n % 250);
+        return loginService.authenticate("admin", "guess" + n, address)
+                .handle((authentication, e) -> e)
+                .join();
+    }
+}
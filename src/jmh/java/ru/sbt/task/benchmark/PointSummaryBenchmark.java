@@ -0,0 +1,31 @@
+package ru.sbt.task.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import ru.sbt.task.model.projection.PointStatusTotals;
+import ru.sbt.task.model.repository.ContractRepository;
+import ru.sbt.task.service.ContractReportService;
+import ru.sbt.task.service.PointSummary;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сводный отчет по точкам выдачи: по материализованным счетчикам и агрегатом по таблице договоров.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PointSummaryBenchmark {
+
+    @Benchmark
+    public List<PointSummary> fromCounters(SeededDatabase db) {
+        return db.bean(ContractReportService.class).buildPointSummary();
+    }
+
+    @Benchmark
+    public List<PointStatusTotals> aggregateQuery(SeededDatabase db) {
+        return db.bean(ContractRepository.class).summarizeByPointAndStatus();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.sbt.task.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.sbt.task.TaskApplication;
+import ru.sbt.task.service.SyntheticDataGenerator;
+
+import java.util.List;
+
+/**
+ * Приложение на отдельной in-memory базе H2, заполненной {@code contracts} договорами
+ * через {@link SyntheticDataGenerator}.
+ * Размер задается параметром JMH: {@code -p contracts=100000}.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+
+    private static final long SEED = 42;
+    private static final int BATCH_SIZE = 5000;
+
+    @Param("10000")
+    public int contracts;
+
+    @Param("50")
+    public int points;
+
+    @Param("100")
+    public int employees;
+
+    public ConfigurableApplicationContext context;
+    public List<Long> contractIds;
+    public List<String> logins;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // Как аргументы: значения из properties() уступили бы application.properties, база была бы общей testdb
+        context = new SpringApplicationBuilder(TaskApplication.class)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--server.port=0",
+                        "--vaadin.launch-browser=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--app.cluster.transport=none");
+        context.getBean(SyntheticDataGenerator.class).generate(
+                new SyntheticDataGenerator.Settings(contracts, 0, employees, points, SEED, BATCH_SIZE));
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        contractIds = jdbc.queryForList("select id from contract", Long.class);
+        logins = jdbc.queryForList("select login from employee", String.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.sbt.task.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.UserDetails;
+import ru.sbt.task.service.CustomUserDetailsService;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузка пользователя при входе, без проверки пароля.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserDetailsBenchmark {
+
+    @State(Scope.Thread)
+    public static class Input {
+        SplittableRandom random = new SplittableRandom(13);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername(SeededDatabase db, Input input) {
+        String login = db.logins.get(input.random.nextInt(db.logins.size()));
+        return db.bean(CustomUserDetailsService.class).loadUserByUsername(login);
+    }
+}
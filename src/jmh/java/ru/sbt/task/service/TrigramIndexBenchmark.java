@@ -0,0 +1,69 @@
+package ru.sbt.task.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск по триграммному индексу ФИО без базы и Spring. Лежит в пакете сервиса:
+ * {@link TrigramIndex} закрыт от остальных пакетов. Размер: {@code -p names=1000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrigramIndexBenchmark {
+
+    private static final String[] LAST_NAMES = {"Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров",
+            "Соколов", "Михайлов", "Новиков", "Федоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семенов"};
+    private static final String[] FIRST_NAMES = {"Александр", "Сергей", "Дмитрий", "Андрей", "Алексей", "Максим",
+            "Евгений", "Иван", "Михаил", "Николай", "Владимир", "Павел"};
+    private static final int LIMIT = 1000;
+
+    @Param("1000000")
+    public int names;
+
+    private TrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void build() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new TrigramIndex();
+        for (int i = 0; i < names; i++) {
+            index.put(i, LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " "
+                    + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + random.nextInt(1_000_000));
+        }
+    }
+
+    // Номер в имени делает запрос избирательным
+    @Benchmark
+    public List<Long> substring() {
+        return index.search("Иванов Иван 98765", LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> transliterated() {
+        return index.search("Kuznetsov Sergei 4242", LIMIT);
+    }
+
+    // Точных совпадений нет, работает поиск с опечатками
+    @Benchmark
+    public List<Long> typo() {
+        return index.search("Смирнв Павел 77777", LIMIT);
+    }
+
+    // Запрос без номера совпадает с большей частью строк, индекс отдает его базе
+    @Benchmark
+    public List<Long> unselective() {
+        return index.search("иванов", LIMIT);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.sbt.task.views;
+
+import com.google.common.eventbus.AsyncEventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.service.DataChangedEvent;
+import ru.sbt.task.service.DataChangedEvent.ChangeType;
+import ru.sbt.task.service.EventDispatchExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Задержка рассылки одного события всем открытым UI: от публикации в шину до доставки последнему.
+ * Открытые UI имитируются блокировкой сессии вместо настоящего {@code UI.access}, поэтому
+ * бенчмарк лежит в пакете рассыльщика. В замер входит окно коалесцирования.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UiBroadcasterBenchmark {
+
+    @Param({"100", "500"})
+    public int uiCount;
+
+    @Param("50")
+    public long windowMillis;
+
+    private EventDispatchExecutor dispatchExecutor;
+    private AsyncEventBus eventBus;
+    private UiBroadcaster broadcaster;
+    private final AtomicReference<CountDownLatch> delivered = new AtomicReference<>();
+
+    @Setup(Level.Trial)
+    public void start() {
+        dispatchExecutor = new EventDispatchExecutor(4, 1000);
+        eventBus = new AsyncEventBus(dispatchExecutor);
+        broadcaster = new UiBroadcaster(eventBus, 2, windowMillis);
+        broadcaster.init();
+        for (int i = 0; i < uiCount; i++) {
+            ReentrantLock sessionLock = new ReentrantLock();
+            broadcaster.register(command -> {
+                sessionLock.lock();
+                try {
+                    command.run();
+                } finally {
+                    sessionLock.unlock();
+                }
+            }, batch -> batch.forEach(event -> delivered.get().countDown()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        broadcaster.shutdown();
+        dispatchExecutor.shutdown();
+    }
+
+    @Benchmark
+    public void fanOut() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(uiCount);
+        delivered.set(latch);
+        eventBus.post(new DataChangedEvent(Contract.class, null, ChangeType.UPDATE));
+        if (!latch.await(30, TimeUnit.SECONDS)) throw new IllegalStateException("not all UIs received the event");
+    }
+}
@@ -1,15 +1,26 @@
 package ru.sbt.task;
 
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import ru.sbt.task.model.entity.Employee;
 import ru.sbt.task.model.repository.EmployeeRepository;
+import ru.sbt.task.service.SyntheticDataGenerator;
 
+import java.time.LocalDate;
+
+// Push нужен, чтобы изменения от других сессий доходили до открытых вкладок без опроса
+@Push
 @SpringBootApplication
-public class TaskApplication {
+@EnableScheduling
+public class TaskApplication implements AppShellConfigurator {
 
 	public static void main(String[] args) {
 		SpringApplication.run(TaskApplication.class, args);
@@ -28,5 +39,19 @@ public class TaskApplication {
 			}
 		};
 	}
-}
 
+	// Заполнение базы для нагрузочных проверок: --spring.profiles.active=synthetic-data --app.synthetic.contracts=10000000
+	@Bean
+	@Profile("synthetic-data")
+	CommandLineRunner generateSyntheticData(SyntheticDataGenerator generator,
+											@Value("${app.synthetic.contracts:1000000}") long contracts,
+											@Value("${app.synthetic.clients:0}") long clients,
+											@Value("${app.synthetic.employees:500}") int employees,
+											@Value("${app.synthetic.points:200}") int points,
+											@Value("${app.synthetic.seed:42}") long seed,
+											@Value("${app.synthetic.batch-size:5000}") int batchSize,
+											@Value("${app.synthetic.reference-date:}") String referenceDate) {
+		return args -> generator.generate(new SyntheticDataGenerator.Settings(contracts, clients, employees, points,
+				seed, batchSize, referenceDate.isBlank() ? null : LocalDate.parse(referenceDate)));
+	}
+}
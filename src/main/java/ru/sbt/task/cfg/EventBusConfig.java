@@ -1,13 +1,32 @@
 package ru.sbt.task.cfg;
 
+import com.google.common.eventbus.AsyncEventBus;
 import com.google.common.eventbus.EventBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import ru.sbt.task.service.EventDispatchExecutor;
 
 @Configuration
 public class EventBusConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventBusConfig.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public EventDispatchExecutor eventDispatchExecutor(@Value("${app.events.dispatch-threads:4}") int threads,
+                                                       @Value("${app.events.queue-capacity:1000}") int queueCapacity) {
+        return new EventDispatchExecutor(threads, queueCapacity);
+    }
+
+    // Каждый подписчик вызывается отдельной задачей пула: ошибка одного не мешает остальным
     @Bean
-    public EventBus eventBus() {
-        return new EventBus();
+    public EventBus eventBus(EventDispatchExecutor eventDispatchExecutor) {
+        return new AsyncEventBus(eventDispatchExecutor, (exception, context) ->
+                logger.error("Subscriber {}.{} failed on {}",
+                        context.getSubscriber().getClass().getSimpleName(),
+                        context.getSubscriberMethod().getName(),
+                        context.getEvent().getClass().getSimpleName(), exception));
     }
 }
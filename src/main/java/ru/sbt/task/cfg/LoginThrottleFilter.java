@@ -0,0 +1,39 @@
+package ru.sbt.task.cfg;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.sbt.task.service.LoginAttemptLimiter;
+
+import java.io.IOException;
+
+/**
+ * Тот же лимит попыток для обработчика формы {@code POST /login}, чтобы его нельзя было
+ * использовать в обход {@link ru.sbt.task.service.LoginService}.
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final LoginAttemptLimiter limiter;
+
+    public LoginThrottleFilter(LoginAttemptLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !"/login".equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire(request.getParameter("username"), request.getRemoteAddr())) {
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
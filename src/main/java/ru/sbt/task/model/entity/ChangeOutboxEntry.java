@@ -0,0 +1,86 @@
+package ru.sbt.task.model.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Запись об изменении сущности для рассылки на другие узлы.
+ * Каждый узел читает таблицу по возрастанию id и пропускает собственные записи.
+ */
+@Entity
+@Table(name = "change_outbox")
+public class ChangeOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+    @Column(name = "entity_type", nullable = false)
+    private String entityType;
+    @Column(name = "entity_id")
+    private Long entityId;
+    @Column(name = "change_type")
+    private String changeType;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public ChangeOutboxEntry() {
+    }
+
+    public ChangeOutboxEntry(String nodeId, String entityType, Long entityId, String changeType) {
+        this.nodeId = nodeId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.changeType = changeType;
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
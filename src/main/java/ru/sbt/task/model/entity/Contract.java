@@ -12,24 +12,26 @@ import java.time.LocalDate;
 
 public class Contract {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contract_seq")
+    @SequenceGenerator(name = "contract_seq", sequenceName = "contract_seq", allocationSize = 50)
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Client client;
     private BigDecimal amount;
     private LocalDate term;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Employee employee;
     private LocalDate issueDate;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Point point;
-    private String status;
+    @Column(columnDefinition = "char(1)")
+    private ContractStatus status;
 
-    public String getStatus() {
+    public ContractStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(ContractStatus status) {
         this.status = status;
     }
 
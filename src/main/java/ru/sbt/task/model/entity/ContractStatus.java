@@ -0,0 +1,39 @@
+package ru.sbt.task.model.entity;
+
+/**
+ * Статус договора. В базе хранится однобуквенный код, в интерфейсе и файлах - название.
+ */
+public enum ContractStatus {
+    ACTIVE("A", "Активен"),
+    CLOSED("C", "Закрыт");
+
+    private final String code;
+    private final String title;
+
+    ContractStatus(String code, String title) {
+        this.code = code;
+        this.title = title;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public static ContractStatus fromCode(String code) {
+        for (ContractStatus status : values()) {
+            if (status.code.equals(code)) return status;
+        }
+        throw new IllegalArgumentException("Неизвестный код статуса: " + code);
+    }
+
+    public static ContractStatus fromTitle(String title) {
+        for (ContractStatus status : values()) {
+            if (status.title.equalsIgnoreCase(title)) return status;
+        }
+        throw new IllegalArgumentException("Неизвестный статус: " + title);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.sbt.task.model.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Код статуса вместо названия: стабилен при переименовании и занимает один символ в строке и индексах.
+ */
+@Converter(autoApply = true)
+public class ContractStatusConverter implements AttributeConverter<ContractStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(ContractStatus status) {
+        return status != null ? status.getCode() : null;
+    }
+
+    @Override
+    public ContractStatus convertToEntityAttribute(String code) {
+        return code != null ? ContractStatus.fromCode(code) : null;
+    }
+}
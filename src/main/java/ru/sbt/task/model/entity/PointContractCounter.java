@@ -0,0 +1,74 @@
+package ru.sbt.task.model.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Материализованный счетчик договоров по паре (точка выдачи, статус).
+ * Обновляется в той же транзакции, что и сам договор.
+ */
+@Entity
+@Table(name = "point_contract_counter",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"point_id", "status"}))
+public class PointContractCounter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "point_id", nullable = false)
+    private Long pointId;
+    @Column(nullable = false, columnDefinition = "char(1)")
+    private ContractStatus status;
+    private long contractCount;
+    private BigDecimal totalAmount;
+
+    public PointContractCounter() {
+    }
+
+    public PointContractCounter(Long pointId, ContractStatus status, long contractCount, BigDecimal totalAmount) {
+        this.pointId = pointId;
+        this.status = status;
+        this.contractCount = contractCount;
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPointId() {
+        return pointId;
+    }
+
+    public void setPointId(Long pointId) {
+        this.pointId = pointId;
+    }
+
+    public ContractStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ContractStatus status) {
+        this.status = status;
+    }
+
+    public long getContractCount() {
+        return contractCount;
+    }
+
+    public void setContractCount(long contractCount) {
+        this.contractCount = contractCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
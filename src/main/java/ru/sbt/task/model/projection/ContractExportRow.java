@@ -0,0 +1,21 @@
+package ru.sbt.task.model.projection;
+
+import ru.sbt.task.model.entity.ContractStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Строка выгрузки списка договоров. Скалярная проекция: сущности в контекст персистентности не попадают.
+ */
+public interface ContractExportRow {
+    Long getId();
+    String getClientFullName();
+    String getClientPhone();
+    BigDecimal getAmount();
+    LocalDate getTerm();
+    LocalDate getIssueDate();
+    ContractStatus getStatus();
+    String getPointName();
+    String getEmployeeLogin();
+}
@@ -0,0 +1,15 @@
+package ru.sbt.task.model.projection;
+
+import ru.sbt.task.model.entity.ContractStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Агрегат договоров по паре (точка выдачи, статус).
+ */
+public interface PointStatusTotals {
+    Long getPointId();
+    ContractStatus getStatus();
+    Long getContractCount();
+    BigDecimal getTotalAmount();
+}
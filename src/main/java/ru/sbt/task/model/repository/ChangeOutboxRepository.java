@@ -0,0 +1,25 @@
+package ru.sbt.task.model.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.sbt.task.model.entity.ChangeOutboxEntry;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ChangeOutboxRepository extends JpaRepository<ChangeOutboxEntry, Long> {
+
+    List<ChangeOutboxEntry> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select coalesce(max(e.id), 0) from ChangeOutboxEntry e")
+    long findMaxId();
+
+    @Modifying
+    @Query("delete from ChangeOutboxEntry e where e.createdAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -1,13 +1,23 @@
 package ru.sbt.task.model.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.sbt.task.model.entity.Client;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
     List<Client> findByFullNameContainingIgnoreCase(String fullName);
-}
 
+    // Постраничный поиск для выпадающего списка клиентов
+    List<Client> findByFullNameContainingIgnoreCase(String fullName, Pageable pageable);
+    long countByFullNameContainingIgnoreCase(String fullName);
+
+    List<Client> findByPhoneIn(Collection<String> phones);
+
+    // Страница клиентов, найденных индексом ФИО
+    List<Client> findByIdIn(Collection<Long> ids, Pageable pageable);
+}
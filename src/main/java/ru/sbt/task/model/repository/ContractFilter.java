@@ -0,0 +1,122 @@
+package ru.sbt.task.model.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import ru.sbt.task.model.entity.Client;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.ContractStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Составной фильтр списка договоров. Пустые поля не ограничивают выборку, границы диапазонов включаются.
+ * Если клиенты уже найдены по имени (индексом ФИО), передаются их id, и имя в запрос не попадает.
+ */
+public record ContractFilter(String clientName,
+                             Collection<Long> clientIds,
+                             ContractStatus status,
+                             Long pointId,
+                             Long employeeId,
+                             BigDecimal amountFrom,
+                             BigDecimal amountTo,
+                             LocalDate issueDateFrom,
+                             LocalDate issueDateTo,
+                             LocalDate termFrom,
+                             LocalDate termTo) {
+
+    public static final ContractFilter EMPTY =
+            new ContractFilter(null, null, null, null, null, null, null, null, null, null, null);
+
+    public ContractFilter withClientIds(Collection<Long> ids) {
+        return new ContractFilter(clientName, ids, status, pointId, employeeId, amountFrom, amountTo,
+                issueDateFrom, issueDateTo, termFrom, termTo);
+    }
+
+    public boolean isEmpty() {
+        return EMPTY.equals(this);
+    }
+
+    public Specification<Contract> toSpecification() {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (clientIds != null) {
+                predicates.add(clientIds.isEmpty() ? cb.disjunction() : root.get("client").get("id").in(clientIds));
+            } else if (clientName != null && !clientName.isBlank()) {
+                predicates.add(cb.like(cb.lower(client(root).get("fullName")),
+                        "%" + escape(clientName.trim().toLowerCase(Locale.ROOT)) + "%", '\\'));
+            }
+            if (status != null) predicates.add(cb.equal(root.get("status"), status));
+            if (pointId != null) predicates.add(cb.equal(root.get("point").get("id"), pointId));
+            if (employeeId != null) predicates.add(cb.equal(root.get("employee").get("id"), employeeId));
+            addRange(predicates, cb, root.get("amount"), amountFrom, amountTo);
+            addRange(predicates, cb, root.get("issueDate"), issueDateFrom, issueDateTo);
+            addRange(predicates, cb, root.get("term"), termFrom, termTo);
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Проверка договора в памяти теми же условиями, что и {@link #toSpecification()}.
+     * Связи договора должны быть загружены.
+     */
+    public boolean matches(Contract contract) {
+        Client client = contract.getClient();
+        if (clientIds != null) {
+            if (client == null || !clientIds.contains(client.getId())) return false;
+        } else if (clientName != null && !clientName.isBlank()) {
+            if (client == null || client.getFullName() == null || !client.getFullName().toLowerCase(Locale.ROOT)
+                    .contains(clientName.trim().toLowerCase(Locale.ROOT))) return false;
+        }
+        if (status != null && status != contract.getStatus()) return false;
+        if (pointId != null && (contract.getPoint() == null || !pointId.equals(contract.getPoint().getId()))) {
+            return false;
+        }
+        if (employeeId != null && (contract.getEmployee() == null
+                || !employeeId.equals(contract.getEmployee().getId()))) {
+            return false;
+        }
+        return inRange(contract.getAmount(), amountFrom, amountTo)
+                && inRange(contract.getIssueDate(), issueDateFrom, issueDateTo)
+                && inRange(contract.getTerm(), termFrom, termTo);
+    }
+
+    private static <Y extends Comparable<? super Y>> boolean inRange(Y value, Y from, Y to) {
+        if (from == null && to == null) return true;
+        return value != null && (from == null || value.compareTo(from) >= 0) && (to == null || value.compareTo(to) <= 0);
+    }
+
+    private static <Y extends Comparable<? super Y>> void addRange(List<Predicate> predicates, CriteriaBuilder cb,
+                                                                  Path<Y> path, Y from, Y to) {
+        if (from != null) predicates.add(cb.greaterThanOrEqualTo(path, from));
+        if (to != null) predicates.add(cb.lessThanOrEqualTo(path, to));
+    }
+
+    // Соединение с клиентом, уже созданное запросом списка или выгрузки, используется повторно
+    @SuppressWarnings("unchecked")
+    private static Join<Contract, Client> client(Root<Contract> root) {
+        for (Fetch<Contract, ?> fetch : root.getFetches()) {
+            if (fetch.getAttribute().getName().equals("client") && fetch instanceof Join<?, ?> join) {
+                return (Join<Contract, Client>) join;
+            }
+        }
+        for (Join<Contract, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals("client")) return (Join<Contract, Client>) join;
+        }
+        return root.join("client", JoinType.LEFT);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,15 +1,45 @@
 package ru.sbt.task.model.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.ContractStatus;
 import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.model.projection.PointStatusTotals;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ContractRepository extends JpaRepository<Contract, Long> {
+public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSpecificationExecutor<Contract>,
+        ContractRepositoryCustom {
+    // Связи договора ленивые; методы для грида, отчетов и PDF подгружают их одним запросом
+
+    @EntityGraph(attributePaths = {"client", "employee", "point"})
     List<Contract> findByClientFullNameContainingIgnoreCase(String fullName);
-    List<Contract> findByPointAndStatus(Point point, String status);
+    @EntityGraph(attributePaths = {"client", "employee", "point"})
+    List<Contract> findByPointAndStatus(Point point, ContractStatus status);
+    @EntityGraph(attributePaths = {"client", "employee", "point"})
     List<Contract> findByPoint(Point point);
+
+    @EntityGraph(attributePaths = {"client", "employee", "point"})
+    Optional<Contract> findWithDetailsById(Long id);
+    @EntityGraph(attributePaths = {"client", "employee", "point"})
+    List<Contract> findWithDetailsByIdIn(Collection<Long> ids);
+
+    // Постраничная выборка для грида: List вместо Page, чтобы не выполнять count на каждую страницу
+    @EntityGraph(attributePaths = {"client", "employee", "point"})
+    List<Contract> findAllBy(Pageable pageable);
+    @EntityGraph(attributePaths = {"client", "employee", "point"})
+    List<Contract> findByClientFullNameContainingIgnoreCase(String fullName, Pageable pageable);
+    long countByClientFullNameContainingIgnoreCase(String fullName);
+
+    @Query("select c.point.id as pointId, c.status as status, count(c) as contractCount, sum(c.amount) as totalAmount " +
+            "from Contract c where c.point is not null group by c.point.id, c.status")
+    List<PointStatusTotals> summarizeByPointAndStatus();
 }
@@ -0,0 +1,28 @@
+package ru.sbt.task.model.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.projection.ContractExportRow;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ContractRepositoryCustom {
+
+    /**
+     * Страница договоров по спецификации вместе с клиентом, сотрудником и точкой, одним запросом и без count.
+     */
+    List<Contract> findAllWithDetails(Specification<Contract> specification, Pageable pageable);
+
+    /**
+     * Следующая порция id договоров по спецификации: id больше {@code afterId} (null - с начала), в порядке id.
+     * Пакетная выгрузка PDF идет по ним ключевой пагинацией, не держа в памяти весь список.
+     */
+    List<Long> findIdsAfter(Specification<Contract> specification, Long afterId, int limit);
+
+    /**
+     * Строки выгрузки списка по спецификации в порядке id. Курсор читается порциями, вызывать внутри транзакции.
+     */
+    Stream<ContractExportRow> streamExportRows(Specification<Contract> specification);
+}
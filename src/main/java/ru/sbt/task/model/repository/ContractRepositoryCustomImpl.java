@@ -0,0 +1,154 @@
+package ru.sbt.task.model.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.sbt.task.model.entity.Client;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.entity.Employee;
+import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.model.projection.ContractExportRow;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+class ContractRepositoryCustomImpl implements ContractRepositoryCustom {
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    ContractRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Contract> findAllWithDetails(Specification<Contract> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Contract> query = cb.createQuery(Contract.class);
+        Root<Contract> root = query.from(Contract.class);
+        // Связи ManyToOne: fetch не размножает строки, поэтому limit/offset остаются в SQL
+        root.fetch("client", JoinType.LEFT);
+        root.fetch("employee", JoinType.LEFT);
+        root.fetch("point", JoinType.LEFT);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Contract> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<Long> findIdsAfter(Specification<Contract> specification, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Contract> root = query.from(Contract.class);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (afterId != null) {
+            Predicate after = cb.greaterThan(root.get("id"), afterId);
+            predicate = predicate != null ? cb.and(predicate, after) : after;
+        }
+        if (predicate != null) query.where(predicate);
+        query.select(root.get("id")).orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<ContractExportRow> streamExportRows(Specification<Contract> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Contract> root = query.from(Contract.class);
+        // Соединения создаются до спецификации, чтобы условие по имени клиента использовало то же соединение
+        Join<Contract, Client> client = root.join("client", JoinType.LEFT);
+        Join<Contract, Point> point = root.join("point", JoinType.LEFT);
+        Join<Contract, Employee> employee = root.join("employee", JoinType.LEFT);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        query.multiselect(
+                        root.get("id").alias("id"),
+                        client.get("fullName").alias("clientFullName"),
+                        client.get("phone").alias("clientPhone"),
+                        root.get("amount").alias("amount"),
+                        root.get("term").alias("term"),
+                        root.get("issueDate").alias("issueDate"),
+                        root.get("status").alias("status"),
+                        point.get("name").alias("pointName"),
+                        employee.get("login").alias("employeeLogin"))
+                .orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .getResultStream()
+                .map(TupleExportRow::new);
+    }
+
+    // Скалярная строка выгрузки поверх Tuple: сущности в контекст персистентности не попадают
+    private record TupleExportRow(Tuple tuple) implements ContractExportRow {
+
+        @Override
+        public Long getId() {
+            return tuple.get("id", Long.class);
+        }
+
+        @Override
+        public String getClientFullName() {
+            return tuple.get("clientFullName", String.class);
+        }
+
+        @Override
+        public String getClientPhone() {
+            return tuple.get("clientPhone", String.class);
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return tuple.get("amount", BigDecimal.class);
+        }
+
+        @Override
+        public LocalDate getTerm() {
+            return tuple.get("term", LocalDate.class);
+        }
+
+        @Override
+        public LocalDate getIssueDate() {
+            return tuple.get("issueDate", LocalDate.class);
+        }
+
+        @Override
+        public ContractStatus getStatus() {
+            return tuple.get("status", ContractStatus.class);
+        }
+
+        @Override
+        public String getPointName() {
+            return tuple.get("pointName", String.class);
+        }
+
+        @Override
+        public String getEmployeeLogin() {
+            return tuple.get("employeeLogin", String.class);
+        }
+    }
+}
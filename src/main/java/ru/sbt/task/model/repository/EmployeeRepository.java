@@ -1,6 +1,10 @@
 package ru.sbt.task.model.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.sbt.task.model.entity.Employee;
 
@@ -8,6 +12,18 @@ import java.util.List;
 import java.util.Optional;
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Employee> findByLogin(String login);
+
+    // Грид сотрудников показывает номер доверенности
+    @Override
+    @EntityGraph(attributePaths = "procuration")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Employee> findAll();
+
+    @EntityGraph(attributePaths = "procuration")
     List<Employee> findByFullNameContainingIgnoreCase(String name);
+
+    @EntityGraph(attributePaths = "procuration")
+    Optional<Employee> findWithProcurationById(Long id);
 }
@@ -0,0 +1,23 @@
+package ru.sbt.task.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.entity.PointContractCounter;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface PointContractCounterRepository extends JpaRepository<PointContractCounter, Long> {
+
+    @Modifying
+    @Query("update PointContractCounter c set c.contractCount = c.contractCount + :count, " +
+            "c.totalAmount = c.totalAmount + :amount where c.pointId = :pointId and c.status = :status")
+    int increment(@Param("pointId") Long pointId,
+                  @Param("status") ContractStatus status,
+                  @Param("count") long count,
+                  @Param("amount") BigDecimal amount);
+}
@@ -1,5 +1,8 @@
 package ru.sbt.task.model.repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.sbt.task.model.entity.Point;
 
@@ -7,6 +10,9 @@ import java.util.List;
 
 @Repository
 public interface PointRepository extends JpaRepository<Point, Long> {
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Point> findAll();
+
     List<Point> findByNameContainingIgnoreCase(String name);
 }
-
@@ -1,6 +1,9 @@
 package ru.sbt.task.model.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.sbt.task.model.entity.Procuration;
 
@@ -8,5 +11,9 @@ import java.util.List;
 
 @Repository
 public interface ProcurationRepository extends JpaRepository<Procuration, Long> {
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Procuration> findAll();
+
     List<Procuration> findByNumberContainingIgnoreCase(String number);
 }
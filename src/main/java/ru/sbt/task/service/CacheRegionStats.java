@@ -0,0 +1,28 @@
+package ru.sbt.task.service;
+
+/**
+ * Счетчики одного региона кэша второго уровня.
+ */
+public class CacheRegionStats {
+    private final String region;
+    private final long hits;
+    private final long misses;
+    private final long puts;
+
+    public CacheRegionStats(String region, long hits, long misses, long puts) {
+        this.region = region;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+    }
+
+    public String getRegion() { return region; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getPuts() { return puts; }
+
+    public String getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? "—" : String.format("%.1f%%", 100.0 * hits / total);
+    }
+}
@@ -0,0 +1,251 @@
+package ru.sbt.task.service;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import ru.sbt.task.model.entity.Client;
+import ru.sbt.task.service.DataChangedEvent.ChangeType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Триграммный индекс ФИО клиентов в памяти для фильтров по клиенту.
+ * <p>
+ * Строится в фоне после старта приложения. Изменения клиентов на этом узле попадают в индекс
+ * после коммита через слушатели Hibernate, изменения с других узлов приходят как удаленные
+ * {@link DataChangedEvent}. Пока индекс не готов или запрос неизбирателен, {@link #search(String)}
+ * возвращает пустой результат и фильтр выполняется в базе.
+ */
+@Service
+public class ClientNameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientNameIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EventBus eventBus;
+    private final int maxResults;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "client-name-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private TrigramIndex index = new TrigramIndex();
+    // Изменения, пришедшие во время пересборки; применяются к новому индексу после подмены
+    private List<Runnable> pendingChanges;
+    private volatile boolean ready;
+
+    public ClientNameIndex(JdbcTemplate jdbcTemplate,
+                           EntityManagerFactory entityManagerFactory,
+                           EventBus eventBus,
+                           @Value("${app.search.client-index.max-results:1000}") int maxResults) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventBus = eventBus;
+        this.maxResults = maxResults;
+    }
+
+    @PostConstruct
+    public void init() {
+        eventBus.register(this);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        ClientChangeListener listener = new ClientChangeListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * id клиентов, в ФИО которых есть строка filter, в том числе с опечатками и в другой раскладке алфавита.
+     * Пусто, если индекс еще строится, запрос короче трех букв или под него подходит больше
+     * {@code app.search.client-index.max-results} клиентов.
+     */
+    public Optional<List<Long>> search(String filter) {
+        if (!ready || filter == null) return Optional.empty();
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(index.search(filter, maxResults));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Подходит ли ФИО под текст фильтра так же, как при точном поиске по индексу: с учетом транслитерации.
+     */
+    public static boolean matches(String fullName, String filter) {
+        String normalizedFilter = TrigramIndex.normalize(filter);
+        return !normalizedFilter.isEmpty() && TrigramIndex.normalize(fullName).contains(normalizedFilter);
+    }
+
+    /**
+     * Перестраивает индекс по таблице клиентов в текущем потоке, например после вставки в обход JPA.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        TrigramIndex rebuilt = new TrigramIndex();
+        try {
+            jdbcTemplate.query("select id, full_name from client",
+                    (RowCallbackHandler) rs -> rebuilt.put(rs.getLong(1), rs.getString(2)));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Client name index built: {} clients in {} ms", rebuilt.size(), System.currentTimeMillis() - started);
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) return;
+        rebuildExecutor.execute(() -> {
+            rebuildScheduled.set(false);
+            try {
+                rebuild();
+            } catch (Exception e) {
+                logger.error("Client name index rebuild failed", e);
+            }
+        });
+    }
+
+    @Subscribe
+    public void onDataChanged(DataChangedEvent event) {
+        // Локальные изменения уже учтены слушателями Hibernate
+        if (!event.isRemote() || event.getEntityType() != Client.class) return;
+        if (event.getChangeType() == ChangeType.DELETE && event.getEntityId() instanceof Long id) {
+            // Удалённая запись остаётся в индексе как пропуск; сжатие запустится по порогу
+            remove(id);
+        } else if (event.getEntity() instanceof Client client && event.getChangeType() != ChangeType.DELETE) {
+            put(client.getId(), client.getFullName());
+        } else {
+            scheduleRebuild();
+        }
+    }
+
+    private void put(Long id, String fullName) {
+        if (id == null) return;
+        apply(() -> index.put(id, fullName));
+    }
+
+    private void remove(Long id) {
+        if (id == null) return;
+        apply(() -> index.remove(id));
+    }
+
+    private void apply(Runnable change) {
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingChanges != null) pendingChanges.add(change);
+            compact = index.removed() > Math.max(10_000, index.size() / 4);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Удаленные строки занимают место в списках триграмм до пересборки
+        if (compact) scheduleRebuild();
+    }
+
+    private class ClientChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+            PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Client client) put(client.getId(), client.getFullName());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof Client client) put(client.getId(), client.getFullName());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Client) remove((Long) event.getId());
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.getMappedClass() == Client.class;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.sbt.task.service;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import ru.sbt.task.model.entity.Client;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.Employee;
+import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.model.entity.Procuration;
+import ru.sbt.task.model.repository.ClientRepository;
+import ru.sbt.task.model.repository.ContractRepository;
+import ru.sbt.task.model.repository.EmployeeRepository;
+import ru.sbt.task.model.repository.PointRepository;
+import ru.sbt.task.model.repository.ProcurationRepository;
+import ru.sbt.task.service.ClusterEventTransport.ChangeMessage;
+import ru.sbt.task.service.DataChangedEvent.ChangeType;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Связывает локальную шину событий с {@link ClusterEventTransport}.
+ * <p>
+ * Локальные события уходят на другие узлы в виде (тип, id, вид изменения). Пришедшие сообщения
+ * сбрасывают кэш справочников, сущность перечитывается из базы и публикуется как удаленное событие,
+ * дальше его обрабатывают те же подписчики, что и локальные изменения.
+ */
+@Service
+public class ClusterEventRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterEventRelay.class);
+
+    private final EventBus eventBus;
+    private final Optional<ClusterEventTransport> transport;
+    private final PersistenceUnitUtil persistenceUnitUtil;
+    private final ReferenceCacheService referenceCacheService;
+    private final Map<Class<?>, Function<Long, Optional<?>>> loaders;
+
+    public ClusterEventRelay(EventBus eventBus,
+                             Optional<ClusterEventTransport> transport,
+                             EntityManagerFactory entityManagerFactory,
+                             ReferenceCacheService referenceCacheService,
+                             ContractRepository contractRepository,
+                             ClientRepository clientRepository,
+                             EmployeeRepository employeeRepository,
+                             PointRepository pointRepository,
+                             ProcurationRepository procurationRepository) {
+        this.eventBus = eventBus;
+        this.transport = transport;
+        this.persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+        this.referenceCacheService = referenceCacheService;
+        this.loaders = Map.of(
+                Contract.class, contractRepository::findWithDetailsById,
+                Client.class, clientRepository::findById,
+                Employee.class, employeeRepository::findWithProcurationById,
+                Point.class, pointRepository::findById,
+                Procuration.class, procurationRepository::findById);
+    }
+
+    @PostConstruct
+    public void init() {
+        transport.ifPresent(t -> {
+            eventBus.register(this);
+            t.subscribe(this::onRemoteChange);
+        });
+    }
+
+    @Subscribe
+    public void onDataChanged(DataChangedEvent event) {
+        if (event.isRemote() || !loaders.containsKey(event.getEntityType())) return;
+        Long id = event.getEntity() == null ? null : (Long) persistenceUnitUtil.getIdentifier(event.getEntity());
+        ClusterEventTransport t = transport.orElseThrow();
+        t.publish(new ChangeMessage(t.nodeId(), event.getEntityType().getName(), id, event.getChangeType()));
+    }
+
+    private void onRemoteChange(ChangeMessage message) {
+        Class<?> type = loaders.keySet().stream()
+                .filter(c -> c.getName().equals(message.entityType()))
+                .findFirst()
+                .orElse(null);
+        if (type == null) {
+            logger.warn("Unknown entity type in cluster message: {}", message.entityType());
+            return;
+        }
+
+        // Кэш сбрасывается до чтения, иначе перечитали бы устаревшую копию
+        referenceCacheService.evict(type);
+
+        // Без сущности подписчики перечитывают списки целиком
+        Object entity = null;
+        if (message.entityId() != null && message.changeType() != ChangeType.DELETE) {
+            entity = loaders.get(type).apply(message.entityId()).orElse(null);
+        }
+        eventBus.post(new DataChangedEvent(type, entity, message.entityId(), message.changeType(), true));
+    }
+}
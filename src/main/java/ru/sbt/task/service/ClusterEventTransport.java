@@ -0,0 +1,27 @@
+package ru.sbt.task.service;
+
+import ru.sbt.task.service.DataChangedEvent.ChangeType;
+
+import java.util.function.Consumer;
+
+/**
+ * Доставка изменений сущностей между экземплярами приложения.
+ * Передается только тип, id и вид изменения: получатель сам перечитывает сущность из общей базы.
+ */
+public interface ClusterEventTransport {
+
+    record ChangeMessage(String nodeId, String entityType, Long entityId, ChangeType changeType) {
+    }
+
+    /**
+     * Идентификатор текущего узла, которым подписываются его сообщения.
+     */
+    String nodeId();
+
+    void publish(ChangeMessage message);
+
+    /**
+     * Сообщения других узлов. Собственные сообщения узла слушателю не передаются.
+     */
+    void subscribe(Consumer<ChangeMessage> listener);
+}
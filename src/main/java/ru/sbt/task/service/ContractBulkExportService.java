@@ -0,0 +1,171 @@
+package ru.sbt.task.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.repository.ContractFilter;
+import ru.sbt.task.model.repository.ContractRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Пакетная выгрузка PDF договоров в ZIP.
+ * <p>
+ * Договоры рендерятся параллельно на ограниченном пуле и пишутся в архив по мере готовности.
+ * Одновременно в памяти находится не больше {@code window} готовых PDF и одна порция договоров,
+ * поэтому расход памяти не зависит от размера выгрузки: id читаются ключевой пагинацией,
+ * а загруженные договоры сразу отсоединяются от EntityManager запроса.
+ */
+@Service
+public class ContractBulkExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractBulkExportService.class);
+
+    private static final int CHUNK_SIZE = 100;
+    private static final Duration JOB_TTL = Duration.ofMinutes(30);
+
+    private final ContractRepository contractRepository;
+    private final ContractPdfRenderer pdfRenderer;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+    private final int window;
+    private final Map<String, ContractExportJob> jobs = new ConcurrentHashMap<>();
+
+    public ContractBulkExportService(ContractRepository contractRepository,
+                                     ContractPdfRenderer pdfRenderer,
+                                     EntityManager entityManager,
+                                     TransactionTemplate transactionTemplate) {
+        this.contractRepository = contractRepository;
+        this.pdfRenderer = pdfRenderer;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.window = threads * 2;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                r -> {
+                    Thread t = new Thread(r, "pdf-export-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ContractExportJob createJob(String owner, String fileName, ContractFilter filter) {
+        evictExpiredJobs();
+        int total = (int) contractRepository.count(filter.toSpecification());
+        ContractExportJob job = new ContractExportJob(owner, fileName, filter, total);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public ContractExportJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Пишет архив задания в поток. Каждое задание выгружается один раз: вызывающий
+     * предварительно захватывает его через {@link ContractExportJob#tryStart()}.
+     */
+    public void writeZip(ContractExportJob job, OutputStream out) throws IOException {
+        if (!job.isStarted()) {
+            throw new IllegalStateException("Export job " + job.getId() + " is not claimed");
+        }
+        CompletionService<RenderedPdf> completion = new ExecutorCompletionService<>(executor);
+        int inFlight = 0;
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            Specification<Contract> specification = job.getFilter().toSpecification();
+            List<Long> ids = contractRepository.findIdsAfter(specification, null, CHUNK_SIZE);
+            while (!ids.isEmpty()) {
+                for (Contract contract : loadDetached(ids)) {
+                    if (inFlight >= window) {
+                        writeNext(completion, zip, job);
+                        inFlight--;
+                    }
+                    completion.submit(() -> new RenderedPdf(contract.getId(), pdfRenderer.render(contract)));
+                    inFlight++;
+                }
+                ids = contractRepository.findIdsAfter(specification, ids.get(ids.size() - 1), CHUNK_SIZE);
+            }
+            while (inFlight > 0) {
+                writeNext(completion, zip, job);
+                inFlight--;
+            }
+        } finally {
+            job.markFinished();
+            jobs.remove(job.getId());
+        }
+    }
+
+    // Под open-in-view порция осталась бы в EntityManager запроса до конца ответа.
+    // Связи загружены графом, поэтому отсоединенные договоры рендерятся без обращения к базе
+    private List<Contract> loadDetached(List<Long> ids) {
+        return readOnlyTransaction.execute(status -> {
+            List<Contract> contracts = contractRepository.findWithDetailsByIdIn(ids);
+            entityManager.clear();
+            return contracts;
+        });
+    }
+
+    private void writeNext(CompletionService<RenderedPdf> completion, ZipOutputStream zip,
+                           ContractExportJob job) throws IOException {
+        Future<RenderedPdf> future;
+        try {
+            future = completion.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Выгрузка прервана", e);
+        }
+        try {
+            RenderedPdf pdf = future.get();
+            zip.putNextEntry(new ZipEntry("contract_" + pdf.contractId() + ".pdf"));
+            zip.write(pdf.bytes());
+            zip.closeEntry();
+            job.recordCompleted();
+        } catch (ExecutionException e) {
+            job.recordFailed();
+            logger.error("Error rendering contract for export {}", job.getId(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Выгрузка прервана", e);
+        }
+    }
+
+    private void evictExpiredJobs() {
+        Instant threshold = Instant.now().minus(JOB_TTL);
+        jobs.values().removeIf(job -> !job.isStarted() && job.getCreatedAt().isBefore(threshold));
+    }
+
+    private record RenderedPdf(Long contractId, byte[] bytes) {
+    }
+}
@@ -0,0 +1,140 @@
+package ru.sbt.task.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.entity.PointContractCounter;
+import ru.sbt.task.model.projection.PointStatusTotals;
+import ru.sbt.task.model.repository.ContractRepository;
+import ru.sbt.task.model.repository.PointContractCounterRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Поддерживает таблицу счетчиков договоров по точкам и статусам.
+ */
+@Service
+public class ContractCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractCounterService.class);
+
+    private final PointContractCounterRepository counterRepository;
+    private final ContractRepository contractRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Отдельная транзакция для создания строки счетчика, не зависящая от транзакции договора
+    private final TransactionTemplate newTransaction;
+
+    public ContractCounterService(PointContractCounterRepository counterRepository,
+                                  ContractRepository contractRepository,
+                                  TransactionTemplate transactionTemplate) {
+        this.counterRepository = counterRepository;
+        this.contractRepository = contractRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Учитывает договор с состоянием (pointId, status, amount) со знаком sign: +1 добавить, -1 убрать.
+     * Вызывается только внутри транзакции, изменяющей сам договор.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Long pointId, ContractStatus status, BigDecimal amount, int sign) {
+        if (pointId == null || status == null) return;
+        BigDecimal delta = amount != null ? amount : BigDecimal.ZERO;
+        if (sign < 0) delta = delta.negate();
+        increment(pointId, status, sign, delta);
+    }
+
+    /**
+     * Учитывает сразу count новых договоров с общей суммой amount, например при импорте.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(Long pointId, ContractStatus status, long count, BigDecimal amount) {
+        if (pointId == null || status == null || count == 0) return;
+        increment(pointId, status, count, amount);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Contract contract) {
+        apply(pointId(contract), contract.getStatus(), contract.getAmount(), 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Contract contract) {
+        apply(pointId(contract), contract.getStatus(), contract.getAmount(), -1);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PointContractCounter> findAll() {
+        return counterRepository.findAll();
+    }
+
+    /**
+     * Пересчитывает счетчики с нуля по таблице договоров. Стирает изменения, которые другие узлы
+     * вносят в это время, поэтому вызывается только без нагрузки, например после генерации данных.
+     */
+    @Transactional
+    public void rebuild() {
+        counterRepository.deleteAllInBatch();
+        insertTotals();
+    }
+
+    /**
+     * При старте счетчики считаются только в пустой таблице: на новой базе или после миграции,
+     * очистившей ее. Остальные узлы кластера в это время продолжают обновлять существующие строки.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (counterRepository.count() == 0) {
+                    insertTotals();
+                    counterRepository.flush();
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Одновременно стартовавший узел уже заполнил таблицу
+            logger.info("Contract counters were rebuilt concurrently: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void insertTotals() {
+        List<PointStatusTotals> totals = contractRepository.summarizeByPointAndStatus();
+        for (PointStatusTotals t : totals) {
+            counterRepository.save(new PointContractCounter(t.getPointId(), t.getStatus(), t.getContractCount(),
+                    t.getTotalAmount() != null ? t.getTotalAmount() : BigDecimal.ZERO));
+        }
+        logger.info("Rebuilt contract counters: {} rows", totals.size());
+    }
+
+    // Строки нет только у первого договора пары (точка, статус). Она создается нулевой в отдельной
+    // транзакции: конкурентная вставка той же пары упирается в уникальный ключ, и это не ломает
+    // сохранение договора. Затем прибавление повторяется в транзакции договора.
+    private void increment(Long pointId, ContractStatus status, long count, BigDecimal amount) {
+        if (counterRepository.increment(pointId, status, count, amount) > 0) return;
+        try {
+            newTransaction.executeWithoutResult(tx ->
+                    counterRepository.saveAndFlush(new PointContractCounter(pointId, status, 0, BigDecimal.ZERO)));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Counter ({}, {}) created concurrently", pointId, status);
+        }
+        if (counterRepository.increment(pointId, status, count, amount) == 0) {
+            throw new IllegalStateException("Нет счетчика договоров для точки " + pointId + " и статуса " + status);
+        }
+    }
+
+    private static Long pointId(Contract contract) {
+        return contract.getPoint() != null ? contract.getPoint().getId() : null;
+    }
+}
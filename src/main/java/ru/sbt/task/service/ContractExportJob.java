@@ -0,0 +1,59 @@
+package ru.sbt.task.service;
+
+import ru.sbt.task.model.repository.ContractFilter;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Задание пакетной выгрузки договоров в ZIP. Хранит фильтр выборки, ее размер на момент создания и прогресс;
+ * сами id читаются порциями во время выгрузки.
+ */
+public class ContractExportJob {
+    private final String id = UUID.randomUUID().toString();
+    private final String owner;
+    private final String fileName;
+    private final ContractFilter filter;
+    private final int total;
+    private final Instant createdAt = Instant.now();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean finished;
+
+    public ContractExportJob(String owner, String fileName, ContractFilter filter, int total) {
+        this.owner = owner;
+        this.fileName = fileName;
+        this.filter = filter;
+        this.total = total;
+    }
+
+    public String getId() { return id; }
+    public String getOwner() { return owner; }
+    public String getFileName() { return fileName; }
+    public ContractFilter getFilter() { return filter; }
+    public Instant getCreatedAt() { return createdAt; }
+    public int getTotal() { return total; }
+    public int getCompleted() { return completed.get(); }
+    public int getFailed() { return failed.get(); }
+    public boolean isStarted() { return started.get(); }
+    public boolean isFinished() { return finished; }
+
+    /**
+     * Захватывает задание для выгрузки; true получает только первый вызвавший.
+     */
+    public boolean tryStart() {
+        return started.compareAndSet(false, true);
+    }
+
+    public double getProgress() {
+        // Договоры, добавленные после создания задания, тоже выгружаются
+        return total == 0 ? 1.0 : Math.min(1.0, (double) (completed.get() + failed.get()) / total);
+    }
+
+    void markFinished() { finished = true; }
+    void recordCompleted() { completed.incrementAndGet(); }
+    void recordFailed() { failed.incrementAndGet(); }
+}
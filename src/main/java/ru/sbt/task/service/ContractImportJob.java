@@ -0,0 +1,75 @@
+package ru.sbt.task.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Задание импорта клиентов и договоров из CSV. Хранит прогресс и ограниченный список ошибок строк.
+ */
+public class ContractImportJob {
+
+    public static final int MAX_ERRORS = 1000;
+
+    public record RowError(long line, String message) {
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String owner;
+    private final String fileName;
+    private final long totalBytes;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong importedClients = new AtomicLong();
+    private final AtomicLong importedContracts = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile boolean finished;
+    private volatile String failure;
+
+    public ContractImportJob(String owner, String fileName, long totalBytes) {
+        this.owner = owner;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getId() { return id; }
+    public String getOwner() { return owner; }
+    public String getFileName() { return fileName; }
+    public Instant getCreatedAt() { return createdAt; }
+    public long getProcessedRows() { return processedRows.get(); }
+    public long getImportedClients() { return importedClients.get(); }
+    public long getImportedContracts() { return importedContracts.get(); }
+    public long getFailedRows() { return failedRows.get(); }
+    public boolean isFinished() { return finished; }
+    public String getFailure() { return failure; }
+
+    public double getProgress() {
+        if (finished || totalBytes <= 0) return finished ? 1.0 : 0.0;
+        return Math.min(1.0, (double) bytesRead.get() / totalBytes);
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    void updateBytesRead(long bytes) { bytesRead.set(bytes); }
+    void recordProcessed(long rows) { processedRows.addAndGet(rows); }
+    void recordClients(long count) { importedClients.addAndGet(count); }
+    void recordContracts(long count) { importedContracts.addAndGet(count); }
+
+    void recordError(long line, String message) {
+        failedRows.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) errors.add(new RowError(line, message));
+        }
+    }
+
+    void markFailed(String message) { failure = message; }
+    void markFinished() { finished = true; }
+}
@@ -0,0 +1,467 @@
+package ru.sbt.task.service;
+
+import com.google.common.eventbus.EventBus;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.sbt.task.model.entity.Client;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.entity.Employee;
+import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.model.repository.ClientRepository;
+import ru.sbt.task.model.repository.EmployeeRepository;
+import ru.sbt.task.model.repository.PointRepository;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт клиентов и договоров из CSV.
+ * <p>
+ * Файл читается порциями по {@code CHUNK_SIZE} строк. Порции разбираются и проверяются параллельно,
+ * а сохраняются по порядку в одном потоке, каждая в своей транзакции: новые клиенты и договоры
+ * уходят пачками JDBC (id берутся из последовательностей блоками, см. allocationSize в сущностях).
+ * В памяти одновременно не больше {@code window} порций, поэтому размер файла не ограничен памятью.
+ * <p>
+ * Колонки: {@code client_full_name, client_phone, amount, term, issue_date, status, point, employee_login}.
+ * Разделитель {@code ;} или {@code ,}. Строка без суммы импортирует только клиента.
+ * Клиент ищется по телефону и создается, если не найден.
+ */
+@Service
+public class ContractImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractImportService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int FLUSH_SIZE = 500;
+    private static final Pattern PHONE = Pattern.compile("\\+?\\d{10,15}");
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+
+    private final ClientRepository clientRepository;
+    private final PointRepository pointRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ContractCounterService counterService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final EventBus eventBus;
+    private final ThreadPoolExecutor validationExecutor;
+    private final ExecutorService jobExecutor;
+    private final int window;
+
+    public ContractImportService(ClientRepository clientRepository,
+                                 PointRepository pointRepository,
+                                 EmployeeRepository employeeRepository,
+                                 ContractCounterService counterService,
+                                 TransactionTemplate transactionTemplate,
+                                 EntityManager entityManager,
+                                 EventBus eventBus) {
+        this.clientRepository = clientRepository;
+        this.pointRepository = pointRepository;
+        this.employeeRepository = employeeRepository;
+        this.counterService = counterService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.eventBus = eventBus;
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.window = threads * 2;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.validationExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(window),
+                r -> {
+                    Thread t = new Thread(r, "csv-import-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.validationExecutor.allowCoreThreadTimeOut(true);
+        // Одновременно идет не больше двух импортов, остальные ждут в очереди
+        this.jobExecutor = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "csv-import-job");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        validationExecutor.shutdownNow();
+    }
+
+    /**
+     * Запускает импорт файла в фоне. Файл удаляется по завершении.
+     *
+     * @param defaultEmployeeId сотрудник для договоров без {@code employee_login}
+     */
+    public ContractImportJob start(String owner, Long defaultEmployeeId, String fileName, File file) {
+        ContractImportJob job = new ContractImportJob(owner, fileName, file.length());
+        jobExecutor.execute(() -> {
+            try {
+                importFile(job, defaultEmployeeId, file);
+            } catch (Exception e) {
+                logger.error("Contract import {} failed", job.getId(), e);
+                job.markFailed(e.getMessage());
+            } finally {
+                job.markFinished();
+                try {
+                    Files.deleteIfExists(file.toPath());
+                } catch (IOException e) {
+                    logger.warn("Cannot delete import file {}", file, e);
+                }
+                // Списки перечитываются целиком: изменений слишком много для точечного обновления
+                eventBus.post(new DataChangedEvent(Client.class));
+                eventBus.post(new DataChangedEvent(Contract.class));
+            }
+        });
+        return job;
+    }
+
+    private void importFile(ContractImportJob job, Long defaultEmployeeId, File file) throws IOException {
+        References references = new References(
+                pointRepository.findAll().stream().collect(Collectors.toMap(
+                        p -> key(p.getName()), Point::getId, (a, b) -> a)),
+                employeeRepository.findAll().stream().collect(Collectors.toMap(
+                        e -> key(e.getLogin()), Employee::getId, (a, b) -> a)),
+                defaultEmployeeId);
+
+        try (CountingInputStream counting = new CountingInputStream(Files.newInputStream(file.toPath()));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(counting, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IOException("Файл пуст");
+            }
+            Columns columns = Columns.of(header);
+
+            Deque<Future<ValidatedChunk>> pending = new ArrayDeque<>();
+            List<RawLine> chunk = new ArrayList<>(CHUNK_SIZE);
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                chunk.add(new RawLine(lineNumber, line));
+                if (chunk.size() == CHUNK_SIZE) {
+                    submit(pending, chunk, columns, references);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                    if (pending.size() >= window) {
+                        persist(job, await(pending.poll()));
+                        job.updateBytesRead(counting.getCount());
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(pending, chunk, columns, references);
+            }
+            while (!pending.isEmpty()) {
+                persist(job, await(pending.poll()));
+            }
+            job.updateBytesRead(counting.getCount());
+        }
+        logger.info("Contract import {} finished: {} rows, {} clients, {} contracts, {} errors", job.getId(),
+                job.getProcessedRows(), job.getImportedClients(), job.getImportedContracts(), job.getFailedRows());
+    }
+
+    private void submit(Deque<Future<ValidatedChunk>> pending, List<RawLine> chunk, Columns columns,
+                        References references) {
+        List<RawLine> lines = chunk;
+        pending.add(validationExecutor.submit(() -> validate(lines, columns, references)));
+    }
+
+    private static ValidatedChunk await(Future<ValidatedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Импорт прерван", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Ошибка разбора файла", e.getCause());
+        }
+    }
+
+    // Разбор и проверка порции, без обращений к базе: справочники уже загружены в References
+    static ValidatedChunk validate(List<RawLine> lines, Columns columns, References references) {
+        List<ImportRow> rows = new ArrayList<>(lines.size());
+        List<ContractImportJob.RowError> errors = new ArrayList<>();
+        for (RawLine raw : lines) {
+            try {
+                rows.add(parseRow(raw.number(), parseLine(raw.text(), columns.delimiter()), columns, references));
+            } catch (IllegalArgumentException e) {
+                errors.add(new ContractImportJob.RowError(raw.number(), e.getMessage()));
+            }
+        }
+        return new ValidatedChunk(rows, errors, lines.size());
+    }
+
+    private static ImportRow parseRow(long line, List<String> values, Columns columns, References references) {
+        String fullName = columns.value(values, Columns.FULL_NAME);
+        String phone = columns.value(values, Columns.PHONE).replaceAll("[\\s()-]", "");
+        if (fullName.isEmpty()) throw new IllegalArgumentException("Не указано ФИО клиента");
+        if (!PHONE.matcher(phone).matches()) throw new IllegalArgumentException("Некорректный телефон: " + phone);
+
+        String amountText = columns.value(values, Columns.AMOUNT);
+        if (amountText.isEmpty()) {
+            return new ImportRow(line, fullName, phone, null);
+        }
+
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(amountText.replace(" ", "").replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректная сумма: " + amountText);
+        }
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) throw new IllegalArgumentException("Сумма должна быть положительной");
+
+        LocalDate term = parseDate(columns.value(values, Columns.TERM), "срок");
+        if (term == null) throw new IllegalArgumentException("Не указан срок договора");
+        LocalDate issueDate = parseDate(columns.value(values, Columns.ISSUE_DATE), "дата выдачи");
+
+        String statusTitle = columns.value(values, Columns.STATUS);
+        ContractStatus status = statusTitle.isEmpty() ? ContractStatus.ACTIVE : ContractStatus.fromTitle(statusTitle);
+
+        String pointName = columns.value(values, Columns.POINT);
+        Long pointId = references.points().get(key(pointName));
+        if (pointId == null) throw new IllegalArgumentException("Точка выдачи не найдена: " + pointName);
+
+        String login = columns.value(values, Columns.EMPLOYEE);
+        Long employeeId = login.isEmpty() ? references.defaultEmployeeId() : references.employees().get(key(login));
+        if (employeeId == null) throw new IllegalArgumentException("Сотрудник не найден: " + login);
+
+        return new ImportRow(line, fullName, phone,
+                new ContractData(amount, term, issueDate != null ? issueDate : LocalDate.now(), status, pointId, employeeId));
+    }
+
+    private void persist(ContractImportJob job, ValidatedChunk chunk) {
+        chunk.errors().forEach(error -> job.recordError(error.line(), error.message()));
+        if (!chunk.rows().isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> save(job, chunk.rows()));
+            } catch (Exception e) {
+                logger.error("Error saving import chunk for job {}", job.getId(), e);
+                String message = "Ошибка сохранения порции: " + e.getMessage();
+                chunk.rows().forEach(row -> job.recordError(row.line(), message));
+            }
+        }
+        job.recordProcessed(chunk.lineCount());
+    }
+
+    private void save(ContractImportJob job, List<ImportRow> rows) {
+        Map<String, Client> clients = new HashMap<>();
+        for (Client client : clientRepository.findByPhoneIn(rows.stream().map(ImportRow::phone).toList())) {
+            clients.putIfAbsent(client.getPhone(), client);
+        }
+
+        Map<CounterKey, BigDecimal[]> counters = new HashMap<>();
+        long newClients = 0;
+        long newContracts = 0;
+        int pendingWrites = 0;
+        for (ImportRow row : rows) {
+            Client client = clients.get(row.phone());
+            if (client == null) {
+                client = new Client();
+                client.setFullName(row.fullName());
+                client.setPhone(row.phone());
+                entityManager.persist(client);
+                clients.put(row.phone(), client);
+                newClients++;
+                pendingWrites++;
+            }
+
+            ContractData data = row.contract();
+            if (data != null) {
+                Contract contract = new Contract();
+                contract.setClient(client);
+                contract.setAmount(data.amount());
+                contract.setTerm(data.term());
+                contract.setIssueDate(data.issueDate());
+                contract.setStatus(data.status());
+                contract.setPoint(entityManager.getReference(Point.class, data.pointId()));
+                contract.setEmployee(entityManager.getReference(Employee.class, data.employeeId()));
+                entityManager.persist(contract);
+                newContracts++;
+                pendingWrites++;
+
+                BigDecimal[] totals = counters.computeIfAbsent(new CounterKey(data.pointId(), data.status()),
+                        k -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                totals[0] = totals[0].add(BigDecimal.ONE);
+                totals[1] = totals[1].add(data.amount());
+            }
+
+            // Сброс пачки в базу и очистка контекста, чтобы он не рос на всю порцию
+            if (pendingWrites >= FLUSH_SIZE) {
+                entityManager.flush();
+                entityManager.clear();
+                pendingWrites = 0;
+            }
+        }
+        counters.forEach((key, totals) ->
+                counterService.addAll(key.pointId(), key.status(), totals[0].longValue(), totals[1]));
+
+        // Счетчики задания меняются после коммита, откат порции их не затрагивает
+        long clientsCount = newClients;
+        long contractsCount = newContracts;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                job.recordClients(clientsCount);
+                job.recordContracts(contractsCount);
+            }
+        });
+    }
+
+    private static LocalDate parseDate(String text, String field) {
+        if (text.isEmpty()) return null;
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(text, format);
+            } catch (DateTimeParseException ignored) {
+                // пробуем следующий формат
+            }
+        }
+        throw new IllegalArgumentException("Некорректная дата (" + field + "): " + text);
+    }
+
+    /**
+     * Разбор строки CSV с кавычками. Перевод строки внутри значения не поддерживается.
+     */
+    static List<String> parseLine(String line, char delimiter) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    record RawLine(long number, String text) {
+    }
+
+    private record ContractData(BigDecimal amount, LocalDate term, LocalDate issueDate, ContractStatus status,
+                                Long pointId, Long employeeId) {
+    }
+
+    private record ImportRow(long line, String fullName, String phone, ContractData contract) {
+    }
+
+    record ValidatedChunk(List<ImportRow> rows, List<ContractImportJob.RowError> errors, int lineCount) {
+    }
+
+    record References(Map<String, Long> points, Map<String, Long> employees, Long defaultEmployeeId) {
+    }
+
+    private record CounterKey(Long pointId, ContractStatus status) {
+    }
+
+    record Columns(Map<String, Integer> indexes, char delimiter) {
+        static final String FULL_NAME = "client_full_name";
+        static final String PHONE = "client_phone";
+        static final String AMOUNT = "amount";
+        static final String TERM = "term";
+        static final String ISSUE_DATE = "issue_date";
+        static final String STATUS = "status";
+        static final String POINT = "point";
+        static final String EMPLOYEE = "employee_login";
+
+        // Разделитель определяется по заголовку, BOM в начале файла отбрасывается
+        static Columns of(String header) {
+            if (!header.isEmpty() && header.charAt(0) == '\uFEFF') header = header.substring(1);
+            char delimiter = header.indexOf(';') >= 0 ? ';' : ',';
+            List<String> names = parseLine(header, delimiter);
+            Map<String, Integer> indexes = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                indexes.put(key(names.get(i)), i);
+            }
+            if (!indexes.containsKey(FULL_NAME) || !indexes.containsKey(PHONE)) {
+                throw new IllegalArgumentException("В заголовке нет колонок " + FULL_NAME + " и " + PHONE);
+            }
+            return new Columns(indexes, delimiter);
+        }
+
+        String value(List<String> values, String column) {
+            Integer index = indexes.get(column);
+            return index == null || index >= values.size() ? "" : values.get(index);
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
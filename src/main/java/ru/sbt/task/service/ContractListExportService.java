@@ -0,0 +1,180 @@
+package ru.sbt.task.service;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.projection.ContractExportRow;
+import ru.sbt.task.model.repository.ContractFilter;
+import ru.sbt.task.model.repository.ContractRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка списка договоров текущего фильтра в CSV и XLSX.
+ * <p>
+ * Строки читаются курсором как скалярные проекции и сразу пишутся в выходной поток,
+ * поэтому память не зависит от размера таблицы. Колонки CSV совпадают с форматом
+ * {@link ContractImportService}, выгрузку можно загрузить обратно.
+ */
+@Service
+public class ContractListExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractListExportService.class);
+
+    private static final List<String> HEADER = List.of("contract_id", "client_full_name", "client_phone", "amount",
+            "term", "issue_date", "status", "point", "employee_login");
+    private static final char DELIMITER = ';';
+    // Строк XLSX в памяти: остальные SXSSF сбрасывает во временный файл
+    private static final int XLSX_WINDOW = 100;
+
+    private final ContractRepository contractRepository;
+    private final ClientNameIndex clientNameIndex;
+
+    public ContractListExportService(ContractRepository contractRepository, ClientNameIndex clientNameIndex) {
+        this.contractRepository = contractRepository;
+        this.clientNameIndex = clientNameIndex;
+    }
+
+    @Transactional(readOnly = true)
+    public long writeCsv(ContractFilter filter, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        // BOM, чтобы Excel открыл файл в UTF-8
+        writer.write('\uFEFF');
+        writeCsvLine(writer, HEADER);
+        try (Stream<ContractExportRow> rows = stream(filter)) {
+            Iterator<ContractExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writeCsvLine(writer, values(iterator.next()));
+                count++;
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} contracts to CSV", count);
+        return count;
+    }
+
+    @Transactional(readOnly = true)
+    public long writeXlsx(ContractFilter filter, OutputStream out) throws IOException {
+        long count = 0;
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("Договоры");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd.mm.yyyy"));
+            CellStyle amountStyle = workbook.createCellStyle();
+            amountStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("#,##0.00"));
+
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < HEADER.size(); i++) {
+                header.createCell(i).setCellValue(HEADER.get(i));
+            }
+
+            try (Stream<ContractExportRow> rows = stream(filter)) {
+                Iterator<ContractExportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    ContractExportRow source = iterator.next();
+                    Row row = sheet.createRow((int) ++count);
+                    row.createCell(0).setCellValue(source.getId());
+                    setText(row, 1, source.getClientFullName());
+                    setText(row, 2, source.getClientPhone());
+                    if (source.getAmount() != null) {
+                        Cell cell = row.createCell(3);
+                        cell.setCellValue(source.getAmount().doubleValue());
+                        cell.setCellStyle(amountStyle);
+                    }
+                    setDate(row, 4, source.getTerm(), dateStyle);
+                    setDate(row, 5, source.getIssueDate(), dateStyle);
+                    setText(row, 6, title(source.getStatus()));
+                    setText(row, 7, source.getPointName());
+                    setText(row, 8, source.getEmployeeLogin());
+                }
+            }
+            workbook.write(out);
+            out.flush();
+        } finally {
+            // Удаляет временные файлы листов
+            workbook.dispose();
+            workbook.close();
+        }
+        logger.info("Exported {} contracts to XLSX", count);
+        return count;
+    }
+
+    // Клиенты по имени ищутся так же, как в гриде: индексом ФИО, а если он не помог - подстрокой в запросе
+    private Stream<ContractExportRow> stream(ContractFilter filter) {
+        if (filter.clientName() != null && filter.clientIds() == null) {
+            filter = clientNameIndex.search(filter.clientName()).map(filter::withClientIds).orElse(filter);
+        }
+        return contractRepository.streamExportRows(filter.toSpecification());
+    }
+
+    private static List<String> values(ContractExportRow row) {
+        return List.of(String.valueOf(row.getId()),
+                text(row.getClientFullName()),
+                text(row.getClientPhone()),
+                row.getAmount() != null ? row.getAmount().toPlainString() : "",
+                row.getTerm() != null ? row.getTerm().toString() : "",
+                row.getIssueDate() != null ? row.getIssueDate().toString() : "",
+                text(title(row.getStatus())),
+                text(row.getPointName()),
+                text(row.getEmployeeLogin()));
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(DELIMITER);
+            writeCsvValue(writer, values.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        boolean quoted = value.indexOf(DELIMITER) >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quoted) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String text(String value) {
+        return value != null ? value : "";
+    }
+
+    // В файл пишется название статуса: в этом же виде его принимает импорт
+    private static String title(ContractStatus status) {
+        return status != null ? status.getTitle() : null;
+    }
+
+    private static void setText(Row row, int column, String value) {
+        if (value != null) row.createCell(column).setCellValue(value);
+    }
+
+    private static void setDate(Row row, int column, LocalDate value, CellStyle style) {
+        if (value == null) return;
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        cell.setCellStyle(style);
+    }
+}
@@ -0,0 +1,131 @@
+package ru.sbt.task.service;
+
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import ru.sbt.task.model.entity.Contract;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Function;
+
+/**
+ * Формирует PDF договора.
+ * <p>
+ * Файл шрифта читается с classpath один раз. Разобранный {@link TrueTypeFont} не потокобезопасен
+ * и используется PDFBox до сохранения документа (subset при save), поэтому экземпляры берутся
+ * из небольшого пула на время одного документа и возвращаются после него.
+ */
+@Service
+public class ContractPdfRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractPdfRenderer.class);
+
+    static final String FONT_RESOURCE = "/fonts/arial.ttf";
+
+    // Шаблон тела договора: подпись и значение строки
+    private static final List<Function<Contract, String>> BODY_LINES = List.of(
+            c -> "Клиент: " + (c.getClient() != null ? c.getClient().getFullName() : "Не указан"),
+            c -> "Сумма: " + c.getAmount(),
+            c -> "Срок: " + c.getTerm(),
+            c -> "Точка выдачи: " + (c.getPoint() != null ?
+                    c.getPoint().getName() + " по адресу " + c.getPoint().getAddress() : "Не указано"),
+            c -> "Менеджер: " + (c.getEmployee() != null ? c.getEmployee().getFullName() : "Не назначен"),
+            c -> "Статус: " + (c.getStatus() != null ? c.getStatus().getTitle() : "Не указан")
+    );
+
+    private final byte[] fontData;
+    private final int maxPooledFonts = Runtime.getRuntime().availableProcessors();
+    private final ConcurrentLinkedDeque<TrueTypeFont> fontPool = new ConcurrentLinkedDeque<>();
+
+    public ContractPdfRenderer() throws IOException {
+        try (InputStream fontStream = getClass().getResourceAsStream(FONT_RESOURCE)) {
+            if (fontStream == null) {
+                throw new IOException("Шрифт arial.ttf не найден в resources/fonts/");
+            }
+            this.fontData = fontStream.readAllBytes();
+        }
+        fontPool.push(parseFont());
+    }
+
+    public byte[] render(Contract contract) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        render(contract, out);
+        return out.toByteArray();
+    }
+
+    public void render(Contract contract, OutputStream out) throws IOException {
+        TrueTypeFont ttf = borrowFont();
+        try (PDDocument doc = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            doc.addPage(page);
+            PDFont font = PDType0Font.load(doc, ttf, true);
+
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                cs.beginText();
+                cs.setLeading(16f);
+                cs.newLineAtOffset(50, 700);
+                cs.setFont(font, 14);
+                cs.showText("ДОГОВОР №" + contract.getId());
+                cs.newLine();
+                cs.newLine();
+                cs.setFont(font, 12);
+                for (Function<Contract, String> line : BODY_LINES) {
+                    cs.showText(line.apply(contract));
+                    cs.newLine();
+                }
+                cs.endText();
+            }
+            doc.save(out);
+        } finally {
+            returnFont(ttf);
+        }
+    }
+
+    /**
+     * Текстовое содержимое договора по шаблону. Совпадает для одинаково выглядящих PDF,
+     * поэтому годится для ETag без формирования документа.
+     */
+    public String describe(Contract contract) {
+        StringBuilder sb = new StringBuilder("ДОГОВОР №").append(contract.getId());
+        for (Function<Contract, String> line : BODY_LINES) {
+            sb.append('\n').append(line.apply(contract));
+        }
+        return sb.toString();
+    }
+
+    private TrueTypeFont borrowFont() throws IOException {
+        TrueTypeFont ttf = fontPool.poll();
+        return ttf != null ? ttf : parseFont();
+    }
+
+    private void returnFont(TrueTypeFont ttf) {
+        if (fontPool.size() < maxPooledFonts) {
+            fontPool.push(ttf);
+        } else {
+            try {
+                ttf.close();
+            } catch (IOException e) {
+                // Вызывается из finally: исключение скрыло бы ошибку самого рендеринга
+                logger.warn("Failed to close pooled font", e);
+            }
+        }
+    }
+
+    private TrueTypeFont parseFont() throws IOException {
+        return new TTFParser().parse(new ByteArrayInputStream(fontData));
+    }
+}
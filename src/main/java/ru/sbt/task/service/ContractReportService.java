@@ -0,0 +1,61 @@
+package ru.sbt.task.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.model.entity.PointContractCounter;
+import ru.sbt.task.model.repository.PointRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ContractReportService {
+
+    private final ContractCounterService counterService;
+    private final PointRepository pointRepository;
+
+    public ContractReportService(ContractCounterService counterService, PointRepository pointRepository) {
+        this.counterService = counterService;
+        this.pointRepository = pointRepository;
+    }
+
+    /**
+     * Сводный отчет по всем точкам. Читает материализованные счетчики,
+     * поэтому стоимость зависит от числа точек, а не договоров.
+     */
+    @Transactional(readOnly = true)
+    public List<PointSummary> buildPointSummary() {
+        Map<Long, Map<ContractStatus, PointContractCounter>> totalsByPoint = new HashMap<>();
+        for (PointContractCounter counter : counterService.findAll()) {
+            totalsByPoint.computeIfAbsent(counter.getPointId(), id -> new EnumMap<>(ContractStatus.class))
+                    .put(counter.getStatus(), counter);
+        }
+
+        List<PointSummary> report = new ArrayList<>();
+        for (Point point : pointRepository.findAll()) {
+            Map<ContractStatus, PointContractCounter> byStatus = totalsByPoint.getOrDefault(point.getId(), Map.of());
+            long total = byStatus.values().stream().mapToLong(PointContractCounter::getContractCount).sum();
+            PointContractCounter active = byStatus.get(ContractStatus.ACTIVE);
+            // Неактивными в отчете считаются закрытые договоры
+            PointContractCounter inactive = byStatus.get(ContractStatus.CLOSED);
+            report.add(new PointSummary(point.getName(), total,
+                    count(active), sum(active),
+                    count(inactive), sum(inactive)));
+        }
+        return report;
+    }
+
+    private static long count(PointContractCounter totals) {
+        return totals != null ? totals.getContractCount() : 0;
+    }
+
+    private static BigDecimal sum(PointContractCounter totals) {
+        return totals != null && totals.getTotalAmount() != null ? totals.getTotalAmount() : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.sbt.task.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.repository.ContractRepository;
+
+/**
+ * Изменение договоров вместе со счетчиками отчета в одной транзакции.
+ */
+@Service
+public class ContractService {
+
+    private final ContractRepository contractRepository;
+    private final ContractCounterService counterService;
+
+    public ContractService(ContractRepository contractRepository, ContractCounterService counterService) {
+        this.contractRepository = contractRepository;
+        this.counterService = counterService;
+    }
+
+    @Transactional
+    public Contract save(Contract contract) {
+        if (contract.getId() != null) {
+            // Состояние из БД, а не из отредактированного в форме экземпляра
+            contractRepository.findById(contract.getId()).ifPresent(stored -> counterService.apply(
+                    stored.getPoint() != null ? stored.getPoint().getId() : null,
+                    stored.getStatus(), stored.getAmount(), -1));
+        }
+        Contract saved = contractRepository.save(contract);
+        counterService.add(saved);
+        return saved;
+    }
+
+    @Transactional
+    public Contract close(Contract contract) {
+        contract.setStatus(ContractStatus.CLOSED);
+        return save(contract);
+    }
+
+    @Transactional
+    public void delete(Contract contract) {
+        contractRepository.findById(contract.getId()).ifPresent(stored -> {
+            counterService.remove(stored);
+            contractRepository.delete(stored);
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package ru.sbt.task.service;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+import ru.sbt.task.model.entity.Employee;
+import ru.sbt.task.model.entity.Procuration;
+import ru.sbt.task.model.repository.EmployeeRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сотрудники вошедших пользователей по id. Запись загружается при первом обращении после входа
+ * и сбрасывается по {@link DataChangedEvent} сотрудника или доверенности, в том числе с других узлов.
+ * Экземпляры общие для всех сессий пользователя и используются только для чтения.
+ */
+@Service
+public class CurrentEmployeeCache {
+
+    private final EmployeeRepository employeeRepository;
+    private final EventBus eventBus;
+    private final Map<Long, Employee> employees = new ConcurrentHashMap<>();
+
+    public CurrentEmployeeCache(EmployeeRepository employeeRepository, EventBus eventBus) {
+        this.employeeRepository = employeeRepository;
+        this.eventBus = eventBus;
+    }
+
+    @PostConstruct
+    public void init() {
+        eventBus.register(this);
+    }
+
+    public Employee get(Long employeeId) {
+        return employees.computeIfAbsent(employeeId,
+                id -> employeeRepository.findWithProcurationById(id).orElse(null));
+    }
+
+    @Subscribe
+    public void onDataChanged(DataChangedEvent event) {
+        if (event.getEntityType() == Employee.class && event.getEntity() instanceof Employee employee
+                && employee.getId() != null) {
+            employees.remove(employee.getId());
+        } else if (event.getEntityType() == Employee.class || event.getEntityType() == Procuration.class) {
+            employees.clear();
+        }
+    }
+}
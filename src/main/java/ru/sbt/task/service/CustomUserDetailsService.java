@@ -1,8 +1,9 @@
 package ru.sbt.task.service;
 
 
-import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,7 @@ import ru.sbt.task.model.entity.Employee;
 import ru.sbt.task.model.repository.EmployeeRepository;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final EmployeeRepository employeeRepository;
 
@@ -27,13 +28,30 @@ public class CustomUserDetailsService implements UserDetailsService {
                         new UsernameNotFoundException("Пользователь с логином '" + username + "' не найден")
                 );
 
-        // Проверяем, активен ли сотрудник
-        return User.builder()
-                .username(employee.getLogin())
-                .password(employee.getPassword())
-                .roles(employee.getRole().startsWith("ROLE_") ?
-                        employee.getRole().substring(5) :
-                        employee.getRole())
-                .build();
+        String role = employee.getRole().startsWith("ROLE_") ?
+                employee.getRole().substring(5) :
+                employee.getRole();
+
+        // id сотрудника остается в сессии, дальше он не ищется по логину
+        return new EmployeePrincipal(employee.getId(), employee.getLogin(), employee.getPassword(),
+                employee.getFullName(), role, AuthorityUtils.createAuthorityList("ROLE_" + role));
+    }
+
+    /**
+     * Вызывается после успешного входа, если хэш пароля устарел: другой алгоритм или меньшая стоимость.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Employee employee = employeeRepository.findByLogin(user.getUsername())
+                .orElseThrow(() ->
+                        new UsernameNotFoundException("Пользователь с логином '" + user.getUsername() + "' не найден")
+                );
+        employee.setPassword(newPassword);
+        employeeRepository.save(employee);
+
+        EmployeePrincipal principal = (EmployeePrincipal) user;
+        return new EmployeePrincipal(principal.getEmployeeId(), principal.getUsername(), newPassword,
+                principal.getFullName(), principal.getRole(), principal.getAuthorities());
     }
 }
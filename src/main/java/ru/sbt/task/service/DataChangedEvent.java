@@ -4,6 +4,10 @@ public class DataChangedEvent {
     private final Class<?> entityType;
     private final Object entity;
     private final ChangeType changeType;
+    // Идентификатор сущности; для удалённых DELETE это единственное, что о ней известно
+    private final Object entityId;
+    // Событие пришло с другого узла через ClusterEventTransport
+    private final boolean remote;
 
     public enum ChangeType {
         CREATE, UPDATE, DELETE
@@ -14,14 +18,27 @@ public class DataChangedEvent {
     }
 
     public DataChangedEvent(Class<?> entityType, Object entity, ChangeType changeType) {
+        this(entityType, entity, changeType, false);
+    }
+
+    public DataChangedEvent(Class<?> entityType, Object entity, ChangeType changeType, boolean remote) {
+        this(entityType, entity, null, changeType, remote);
+    }
+
+    public DataChangedEvent(Class<?> entityType, Object entity, Object entityId, ChangeType changeType,
+                            boolean remote) {
         this.entityType = entityType;
         this.entity = entity;
+        this.entityId = entityId;
         this.changeType = changeType;
+        this.remote = remote;
     }
 
     // Геттеры
     public Class<?> getEntityType() { return entityType; }
     public Object getEntity() { return entity; }
+    public Object getEntityId() { return entityId; }
     public ChangeType getChangeType() { return changeType; }
+    public boolean isRemote() { return remote; }
 
 }
@@ -0,0 +1,39 @@
+package ru.sbt.task.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Пользователь Spring Security с данными сотрудника, известными на момент входа.
+ * Хранится в сессии вместе с контекстом безопасности, поэтому сериализуемый.
+ */
+public class EmployeePrincipal extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long employeeId;
+    private final String fullName;
+    private final String role;
+
+    public EmployeePrincipal(Long employeeId, String login, String password, String fullName, String role,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(login, password, authorities);
+        this.employeeId = employeeId;
+        this.fullName = fullName;
+        this.role = role;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
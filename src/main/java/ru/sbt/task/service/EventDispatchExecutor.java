@@ -0,0 +1,85 @@
+package ru.sbt.task.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный пул доставки событий {@link DataChangedEvent}.
+ * <p>
+ * Очередь фиксированного размера; при ее заполнении подписчика выполняет поток,
+ * опубликовавший событие, что естественно притормаживает источник.
+ * Считает глубину очереди и задержку доставки от публикации до окончания обработки.
+ */
+public class EventDispatchExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public EventDispatchExecutor(int threads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "event-dispatch-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, pool) -> {
+                    callerRuns.increment();
+                    if (!pool.isShutdown()) r.run();
+                });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long submittedAt = System.nanoTime();
+        executor.execute(() -> {
+            try {
+                command.run();
+            } finally {
+                long latency = System.nanoTime() - submittedAt;
+                dispatched.increment();
+                totalLatencyNanos.add(latency);
+                maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            }
+        });
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    /** Сколько раз очередь была полна и подписчик выполнялся в потоке издателя. */
+    public long getCallerRunsCount() {
+        return callerRuns.sum();
+    }
+
+    public double getAverageLatencyMillis() {
+        long count = dispatched.sum();
+        return count == 0 ? 0 : totalLatencyNanos.sum() / 1e6 / count;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1e6;
+    }
+}
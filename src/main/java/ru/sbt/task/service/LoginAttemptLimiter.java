@@ -0,0 +1,100 @@
+package ru.sbt.task.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ограничение частоты попыток входа по логину и по адресу клиента, до проверки пароля.
+ * <p>
+ * Счетчики лежат в полосах {@link AtomicLongArray}: в одном long упакованы номер окна
+ * и число попыток в нем, обновление идет через CAS без блокировок. Ключи с одинаковой полосой
+ * делят счетчик, это может лишь раньше ограничить попытки, но не пропустить лишние.
+ */
+@Service
+public class LoginAttemptLimiter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray loginStripes;
+    private final AtomicLongArray addressStripes;
+    private final int maxPerLogin;
+    private final int maxPerAddress;
+    private final long windowMillis;
+
+    public LoginAttemptLimiter(@Value("${app.security.login.max-per-login:10}") int maxPerLogin,
+                               @Value("${app.security.login.max-per-address:50}") int maxPerAddress,
+                               @Value("${app.security.login.window:PT1M}") Duration window,
+                               @Value("${app.security.login.stripes:4096}") int stripes) {
+        this.maxPerLogin = maxPerLogin;
+        this.maxPerAddress = maxPerAddress;
+        this.windowMillis = window.toMillis();
+        this.loginStripes = new AtomicLongArray(stripes);
+        this.addressStripes = new AtomicLongArray(stripes);
+    }
+
+    /**
+     * Учитывает попытку. Возвращает false, если лимит логина или адреса в текущем окне исчерпан;
+     * отклоненная попытка не расходует лимит.
+     */
+    public boolean tryAcquire(String login, String address) {
+        long window = System.currentTimeMillis() / windowMillis;
+        int loginIndex = index(loginStripes, normalize(login));
+        int addressIndex = index(addressStripes, address == null ? "" : address);
+
+        if (!tryIncrement(addressStripes, addressIndex, window, maxPerAddress)) {
+            return false;
+        }
+        if (!tryIncrement(loginStripes, loginIndex, window, maxPerLogin)) {
+            addressStripes.getAndUpdate(addressIndex, v -> windowOf(v) == window && countOf(v) > 0 ? v - 1 : v);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Успешный вход возвращает свою попытку в счетчик логина; счетчик адреса остается.
+     * Полосу целиком не обнуляет: ее делят другие логины, и чужой успешный вход
+     * не должен стирать неудачные попытки подбора пароля к этому логину.
+     */
+    public void release(String login) {
+        long window = System.currentTimeMillis() / windowMillis;
+        loginStripes.getAndUpdate(index(loginStripes, normalize(login)),
+                v -> windowOf(v) == window && countOf(v) > 0 ? v - 1 : v);
+    }
+
+    private static boolean tryIncrement(AtomicLongArray stripes, int index, long window, int max) {
+        while (true) {
+            long current = stripes.get(index);
+            long count = windowOf(current) == window ? countOf(current) : 0;
+            if (count >= max) {
+                return false;
+            }
+            if (stripes.compareAndSet(index, current, (window << COUNT_BITS) | (count + 1))) {
+                return true;
+            }
+        }
+    }
+
+    private static long windowOf(long value) {
+        return value >>> COUNT_BITS;
+    }
+
+    private static long countOf(long value) {
+        return value & COUNT_MASK;
+    }
+
+    private static int index(AtomicLongArray stripes, String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return Math.floorMod(h, stripes.length());
+    }
+
+    private static String normalize(String login) {
+        return login == null ? "" : login.trim().toLowerCase(Locale.ROOT);
+    }
+}
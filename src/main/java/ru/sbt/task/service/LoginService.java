@@ -0,0 +1,70 @@
+package ru.sbt.task.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Проверка логина и пароля вне потоков запросов.
+ * <p>
+ * Сначала попытка проходит через {@link LoginAttemptLimiter}, затем BCrypt выполняется в отдельном
+ * ограниченном пуле. При заполненной очереди попытка отклоняется сразу, а не ждет,
+ * поэтому поток атаки не может занять все ядра.
+ */
+@Service
+public class LoginService {
+
+    private final AuthenticationManager authenticationManager;
+    private final LoginAttemptLimiter limiter;
+    private final ThreadPoolExecutor executor;
+
+    public LoginService(AuthenticationManager authenticationManager,
+                        LoginAttemptLimiter limiter,
+                        @Value("${app.security.login.threads:0}") int threads,
+                        @Value("${app.security.login.queue-capacity:32}") int queueCapacity) {
+        this.authenticationManager = authenticationManager;
+        this.limiter = limiter;
+        // По умолчанию половина ядер: оставшиеся обслуживают уже вошедших пользователей
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "login-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public CompletableFuture<Authentication> authenticate(String login, String password, String remoteAddress) {
+        if (!limiter.tryAcquire(login, remoteAddress)) {
+            return CompletableFuture.failedFuture(new LoginThrottledException("Слишком много попыток входа"));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                Authentication authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(login, password));
+                limiter.release(login);
+                return authentication;
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new LoginThrottledException("Сервер занят, повторите вход позже"));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.sbt.task.service;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Попытка входа отклонена без проверки пароля: превышен лимит попыток или пул проверки занят.
+ */
+public class LoginThrottledException extends AuthenticationException {
+
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,128 @@
+package ru.sbt.task.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sbt.task.model.entity.ChangeOutboxEntry;
+import ru.sbt.task.model.repository.ChangeOutboxRepository;
+import ru.sbt.task.service.DataChangedEvent.ChangeType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Транспорт через таблицу {@code change_outbox} в общей базе: узел пишет свои изменения,
+ * все узлы опрашивают таблицу по возрастанию id.
+ * <p>
+ * Id, пропущенные при чтении (транзакция с меньшим id закоммитилась позже), перепроверяются
+ * несколько опросов подряд, чтобы не потерять такие записи.
+ */
+@Service
+@ConditionalOnProperty(name = "app.cluster.transport", havingValue = "outbox", matchIfMissing = true)
+public class OutboxEventTransport implements ClusterEventTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxEventTransport.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int GAP_RECHECKS = 10;
+    private static final int MAX_GAPS = 1000;
+
+    private final ChangeOutboxRepository repository;
+    private final String nodeId;
+    private final Duration retention;
+    private final Map<Long, Integer> gaps = new HashMap<>();
+    private volatile Consumer<ChangeMessage> listener;
+    private long lastSeenId;
+
+    public OutboxEventTransport(ChangeOutboxRepository repository,
+                                @Value("${app.cluster.node-id:}") String nodeId,
+                                @Value("${app.cluster.outbox-retention:PT10M}") Duration retention) {
+        this.repository = repository;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    public void init() {
+        // История до старта узла не нужна: его гриды и кэши еще пусты
+        lastSeenId = repository.findMaxId();
+        logger.info("Outbox transport started, node {}, from id {}", nodeId, lastSeenId);
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(ChangeMessage message) {
+        repository.save(new ChangeOutboxEntry(message.nodeId(), message.entityType(), message.entityId(),
+                message.changeType() == null ? null : message.changeType().name()));
+    }
+
+    @Override
+    public void subscribe(Consumer<ChangeMessage> listener) {
+        this.listener = listener;
+    }
+
+    // Планировщик вызывает опрос из одного потока, поэтому курсор и пропуски без синхронизации
+    @Scheduled(fixedDelayString = "${app.cluster.poll-interval-millis:1000}")
+    public void poll() {
+        Consumer<ChangeMessage> target = listener;
+        if (target == null) return;
+
+        if (!gaps.isEmpty()) {
+            List<ChangeOutboxEntry> late = repository.findAllById(gaps.keySet());
+            late.sort(Comparator.comparing(ChangeOutboxEntry::getId));
+            late.forEach(entry -> {
+                gaps.remove(entry.getId());
+                deliver(entry, target);
+            });
+            gaps.replaceAll((id, left) -> left - 1);
+            gaps.values().removeIf(left -> left <= 0);
+        }
+
+        List<ChangeOutboxEntry> batch;
+        do {
+            batch = repository.findByIdGreaterThanOrderByIdAsc(lastSeenId, PageRequest.of(0, BATCH_SIZE));
+            for (ChangeOutboxEntry entry : batch) {
+                for (long id = lastSeenId + 1; id < entry.getId() && gaps.size() < MAX_GAPS; id++) {
+                    gaps.put(id, GAP_RECHECKS);
+                }
+                lastSeenId = entry.getId();
+                deliver(entry, target);
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.outbox-cleanup-millis:60000}")
+    @Transactional
+    public void cleanup() {
+        int deleted = repository.deleteOlderThan(Instant.now().minus(retention));
+        if (deleted > 0) {
+            logger.debug("Removed {} outbox entries", deleted);
+        }
+    }
+
+    private void deliver(ChangeOutboxEntry entry, Consumer<ChangeMessage> target) {
+        if (nodeId.equals(entry.getNodeId())) return;
+        try {
+            target.accept(new ChangeMessage(entry.getNodeId(), entry.getEntityType(), entry.getEntityId(),
+                    entry.getChangeType() == null ? null : ChangeType.valueOf(entry.getChangeType())));
+        } catch (Exception e) {
+            logger.error("Error delivering outbox entry {}", entry.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.sbt.task.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Строка сводного отчета по точке выдачи.
+ */
+public class PointSummary {
+    private final String pointName;
+    private final long totalCount;
+    private final long activeCount;
+    private final BigDecimal activeSum;
+    private final long inactiveCount;
+    private final BigDecimal inactiveSum;
+
+    public PointSummary(String pointName, long totalCount,
+                        long activeCount, BigDecimal activeSum,
+                        long inactiveCount, BigDecimal inactiveSum) {
+        this.pointName = pointName;
+        this.totalCount = totalCount;
+        this.activeCount = activeCount;
+        this.activeSum = activeSum;
+        this.inactiveCount = inactiveCount;
+        this.inactiveSum = inactiveSum;
+    }
+
+    public String getPointName() { return pointName; }
+    public long getTotalCount() { return totalCount; }
+    public long getActiveCount() { return activeCount; }
+    public BigDecimal getActiveSum() { return activeSum; }
+    public long getInactiveCount() { return inactiveCount; }
+    public BigDecimal getInactiveSum() { return inactiveSum; }
+}
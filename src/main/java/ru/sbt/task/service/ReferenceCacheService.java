@@ -0,0 +1,71 @@
+package ru.sbt.task.service;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import ru.sbt.task.model.entity.Employee;
+import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.model.entity.Procuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Кэш второго уровня для справочников: точки, доверенности, сотрудники.
+ * <p>
+ * Изменения через JPA Hibernate инвалидирует сам. Регион дополнительно сбрасывается
+ * по {@link DataChangedEvent}, чтобы учесть изменения в обход текущей сессии.
+ */
+@Service
+public class ReferenceCacheService {
+
+    private static final Set<Class<?>> CACHED_TYPES = Set.of(Employee.class, Point.class, Procuration.class);
+
+    private final SessionFactory sessionFactory;
+    private final EventBus eventBus;
+
+    public ReferenceCacheService(EntityManagerFactory entityManagerFactory, EventBus eventBus) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.eventBus = eventBus;
+    }
+
+    @PostConstruct
+    public void init() {
+        eventBus.register(this);
+    }
+
+    @Subscribe
+    public void onDataChanged(DataChangedEvent event) {
+        evict(event.getEntityType());
+    }
+
+    public void evict(Class<?> entityType) {
+        if (!CACHED_TYPES.contains(entityType)) return;
+        sessionFactory.getCache().evictEntityData(entityType);
+        sessionFactory.getCache().evictDefaultQueryRegion();
+    }
+
+    public List<CacheRegionStats> getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheRegionStats> result = new ArrayList<>();
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().forEach(region -> {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats != null) {
+                result.add(new CacheRegionStats(region,
+                        regionStats.getHitCount(), regionStats.getMissCount(), regionStats.getPutCount()));
+            }
+        });
+        result.add(new CacheRegionStats("Все запросы (query cache)",
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()));
+        return result;
+    }
+}
@@ -9,9 +9,11 @@ import ru.sbt.task.model.repository.EmployeeRepository;
 @Service
 public class SecurityService {
     private final EmployeeRepository employeeRepository;
+    private final CurrentEmployeeCache currentEmployeeCache;
 
-    public SecurityService(EmployeeRepository employeeRepository) {
+    public SecurityService(EmployeeRepository employeeRepository, CurrentEmployeeCache currentEmployeeCache) {
         this.employeeRepository = employeeRepository;
+        this.currentEmployeeCache = currentEmployeeCache;
     }
 
     public String getCurrentUsername() {
@@ -20,8 +22,12 @@ public class SecurityService {
     }
 
     public Employee getCurrentEmployee() {
-        String username = getCurrentUsername();
-        if (username == null) return null;
-        return employeeRepository.findByLogin(username).orElse(null);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) return null;
+        if (authentication.getPrincipal() instanceof EmployeePrincipal principal) {
+            return currentEmployeeCache.get(principal.getEmployeeId());
+        }
+        // Аутентификация не через CustomUserDetailsService
+        return employeeRepository.findByLogin(authentication.getName()).orElse(null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+package ru.sbt.task.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.sbt.task.model.entity.ContractStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Заполняет схему синтетическими данными для нагрузочных проверок.
+ * <p>
+ * Результат определяется зерном и опорной датой: при одинаковых параметрах получаются одинаковые строки.
+ * Распределения неравномерные, как в реальной работе: немногие точки и сотрудники оформляют
+ * большую часть договоров, у части клиентов много договоров, суммы распределены логнормально.
+ * Строки вставляются пачками JDBC с явными id, по транзакции на пачку; после вставки
+ * последовательности id сдвигаются за последний id. Вставка идет мимо слушателей, поэтому в конце
+ * пересчитываются счетчики договоров по точкам и индекс ФИО клиентов.
+ */
+@Service
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String[] LAST_NAMES = {"Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров",
+            "Соколов", "Михайлов", "Новиков", "Федоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семенов",
+            "Егоров", "Павлов", "Козлов", "Степанов", "Николаев", "Орлов", "Андреев", "Макаров", "Никитин"};
+    private static final String[] FIRST_NAMES = {"Александр", "Сергей", "Дмитрий", "Андрей", "Алексей", "Максим",
+            "Евгений", "Иван", "Михаил", "Николай", "Владимир", "Павел", "Олег", "Юрий", "Артем", "Игорь"};
+    private static final String[] MIDDLE_NAMES = {"Александрович", "Сергеевич", "Дмитриевич", "Андреевич",
+            "Алексеевич", "Иванович", "Михайлович", "Николаевич", "Владимирович", "Петрович", "Олегович"};
+    private static final String[] CITIES = {"Москва", "Санкт-Петербург", "Новосибирск", "Екатеринбург", "Казань",
+            "Нижний Новгород", "Самара", "Омск", "Ростов-на-Дону", "Уфа"};
+    private static final String[] STREETS = {"Ленина", "Мира", "Советская", "Гагарина", "Пушкина", "Садовая",
+            "Центральная", "Молодежная", "Школьная", "Лесная"};
+
+    private static final String DEFAULT_PASSWORD = "password";
+    private static final int PROGRESS_STEP = 1_000_000;
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Объемы и зерно генерации. {@code clients = 0} означает одного клиента на пять договоров.
+     * Даты отсчитываются от {@code referenceDate}, а не от текущего дня, чтобы данные не зависели от даты запуска.
+     */
+    public record Settings(long contracts, long clients, int employees, int points, long seed, int batchSize,
+                           LocalDate referenceDate) {
+
+        public static final LocalDate DEFAULT_REFERENCE_DATE = LocalDate.of(2025, 1, 1);
+
+        public Settings {
+            if (referenceDate == null) referenceDate = DEFAULT_REFERENCE_DATE;
+        }
+
+        public Settings(long contracts, long clients, int employees, int points, long seed, int batchSize) {
+            this(contracts, clients, employees, points, seed, batchSize, DEFAULT_REFERENCE_DATE);
+        }
+
+        public long clientCount() {
+            return clients > 0 ? clients : Math.max(1, contracts / 5);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ClientNameIndex clientNameIndex;
+    private final ContractCounterService contractCounterService;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  PasswordEncoder passwordEncoder,
+                                  EntityManagerFactory entityManagerFactory,
+                                  ClientNameIndex clientNameIndex,
+                                  ContractCounterService contractCounterService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.entityManagerFactory = entityManagerFactory;
+        this.clientNameIndex = clientNameIndex;
+        this.contractCounterService = contractCounterService;
+    }
+
+    public void generate(Settings settings) {
+        long started = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        logger.info("Generating synthetic data: {}", settings);
+
+        long firstPoint = firstId("point");
+        insert("insert into point (id, name, address) values (?, ?, ?)", settings.points(), settings.batchSize(),
+                i -> new Object[]{firstPoint + i, "Точка выдачи №" + (firstPoint + i), address(random)});
+
+        long firstProcuration = firstId("procuration");
+        LocalDate today = settings.referenceDate();
+        insert("insert into procuration (id, number, date) values (?, ?, ?)", settings.employees(), settings.batchSize(),
+                i -> new Object[]{firstProcuration + i, "Д-" + (firstProcuration + i) + "/" + (2015 + random.nextInt(10)),
+                        Date.valueOf(today.minusDays(random.nextInt(3650)))});
+
+        // Один хэш на всех: BCrypt на каждого сотрудника занял бы минуты
+        String password = passwordEncoder.encode(DEFAULT_PASSWORD);
+        long firstEmployee = firstId("employee");
+        insert("insert into employee (id, full_name, login, password, role, procuration_id) values (?, ?, ?, ?, ?, ?)",
+                settings.employees(), settings.batchSize(),
+                i -> new Object[]{firstEmployee + i, fullName(random), "user" + (firstEmployee + i), password,
+                        i % 50 == 0 ? "ADMIN" : "USER", firstProcuration + i});
+
+        long clients = settings.clientCount();
+        long firstClient = firstId("client");
+        insert("insert into client (id, full_name, phone) values (?, ?, ?)", clients, settings.batchSize(),
+                i -> new Object[]{firstClient + i, fullName(random), String.format("+79%09d", random.nextInt(1_000_000_000))});
+
+        long firstContract = firstId("contract");
+        insert("insert into contract (id, client_id, employee_id, point_id, amount, issue_date, term, status) " +
+                        "values (?, ?, ?, ?, ?, ?, ?, ?)", settings.contracts(), settings.batchSize(),
+                i -> {
+                    LocalDate issued = today.minusDays(random.nextInt(5 * 365));
+                    LocalDate term = issued.plusMonths(6 + random.nextInt(55));
+                    ContractStatus status = term.isBefore(today) || random.nextInt(10) < 2
+                            ? ContractStatus.CLOSED : ContractStatus.ACTIVE;
+                    return new Object[]{firstContract + i,
+                            firstClient + skewed(random, clients, 2.5),
+                            firstEmployee + skewed(random, settings.employees(), 1.5),
+                            firstPoint + skewed(random, settings.points(), 2.0),
+                            amount(random), Date.valueOf(issued), Date.valueOf(term), status.getCode()};
+                });
+
+        // Hibernate выдает id блоками по allocationSize до значения последовательности,
+        // поэтому последовательность сдвигается с запасом на один блок
+        for (String table : List.of("point", "procuration", "employee", "client", "contract")) {
+            jdbcTemplate.execute("alter sequence " + table + "_seq restart with " + (nextId(table) + ID_ALLOCATION_SIZE));
+        }
+        // Справочники в кэше второго уровня больше не соответствуют таблицам
+        entityManagerFactory.getCache().evictAll();
+        // Вставка шла мимо слушателей Hibernate; в таблице могли быть договоры до генерации
+        contractCounterService.rebuild();
+        clientNameIndex.rebuild();
+
+        logger.info("Synthetic data generated in {} s", (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private interface RowSupplier {
+        Object[] row(long index);
+    }
+
+    private void insert(String sql, long count, int batchSize, RowSupplier rows) {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (long i = 0; i < count; i++) {
+            batch.add(rows.row(i));
+            if (batch.size() == batchSize || i == count - 1) {
+                List<Object[]> args = batch;
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, args));
+                batch = new ArrayList<>(batchSize);
+            }
+            if ((i + 1) % PROGRESS_STEP == 0) {
+                logger.info("{}: {} rows", sql.substring(12, sql.indexOf(' ', 12)), i + 1);
+            }
+        }
+    }
+
+    // Первый свободный id: выше занятых строк и блока, который Hibernate мог уже взять из последовательности
+    private long firstId(String table) {
+        Long sequenceValue = jdbcTemplate.queryForObject("select next value for " + table + "_seq", Long.class);
+        return Math.max(nextId(table), sequenceValue + 1);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    // Индекс в [0, n) со смещением к началу: чем больше skew, тем сильнее концентрация на первых элементах
+    private static long skewed(SplittableRandom random, long n, double skew) {
+        return Math.min(n - 1, (long) (n * Math.pow(random.nextDouble(), skew)));
+    }
+
+    private static BigDecimal amount(SplittableRandom random) {
+        // Медиана около 150 тыс., длинный хвост крупных сумм
+        double value = Math.exp(11.9 + 0.9 * random.nextGaussian());
+        return BigDecimal.valueOf(Math.max(1000, Math.min(value, 50_000_000))).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static String fullName(SplittableRandom random) {
+        return pick(random, LAST_NAMES) + " " + pick(random, FIRST_NAMES) + " " + pick(random, MIDDLE_NAMES);
+    }
+
+    private static String address(SplittableRandom random) {
+        return "г. " + pick(random, CITIES) + ", ул. " + pick(random, STREETS) + ", " + (1 + random.nextInt(150));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
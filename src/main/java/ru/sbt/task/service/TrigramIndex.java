@@ -0,0 +1,221 @@
+package ru.sbt.task.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Триграммный индекс строк по id для поиска подстроки с опечатками.
+ * <p>
+ * Строки нормализуются: нижний регистр, кириллица транслитерируется в латиницу, прочие символы
+ * заменяются пробелом. Каждой строке выдается порядковый номер, списки номеров по триграммам
+ * растут только в конец и поэтому отсортированы. Удаленная строка остается в списках до
+ * пересборки, при поиске ее пропускает проверка кандидата. Класс не потокобезопасен.
+ */
+final class TrigramIndex {
+
+    private static final String[] CYRILLIC = {"a", "b", "v", "g", "d", "e", "zh", "z", "i", "i", "k", "l", "m", "n",
+            "o", "p", "r", "s", "t", "u", "f", "kh", "ts", "ch", "sh", "shch", "", "y", "", "e", "yu", "ya"};
+    private static final int MAX_QUERY_TRIGRAMS = 64;
+
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] ids = new long[1024];
+    private String[] names = new String[1024];
+    private int size;
+    private int live;
+
+    void put(long id, String name) {
+        remove(id);
+        String normalized = normalize(name);
+        if (normalized.length() < 3) return;
+
+        int ordinal = size++;
+        if (ordinal == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            names = Arrays.copyOf(names, names.length * 2);
+        }
+        ids[ordinal] = id;
+        names[ordinal] = normalized;
+        ordinals.put(id, ordinal);
+        live++;
+        for (long trigram : trigrams(normalized)) {
+            postings.computeIfAbsent(trigram, k -> new IntList()).add(ordinal);
+        }
+    }
+
+    void remove(long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal != null) {
+            names[ordinal] = null;
+            live--;
+        }
+    }
+
+    int size() {
+        return live;
+    }
+
+    int removed() {
+        return size - live;
+    }
+
+    /**
+     * id строк, содержащих запрос; если таких нет - похожих на него с опечатками. Не больше limit.
+     * null, если запрос короче трех символов или точных совпадений больше limit:
+     * такой запрос выгоднее выполнить в базе.
+     */
+    List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.length() < 3) return null;
+        long[] trigrams = trigrams(normalized);
+        if (trigrams.length > MAX_QUERY_TRIGRAMS) trigrams = Arrays.copyOf(trigrams, MAX_QUERY_TRIGRAMS);
+
+        List<Long> result = new ArrayList<>();
+        IntList[] lists = new IntList[trigrams.length];
+        boolean complete = true;
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) complete = false;
+        }
+
+        if (complete) {
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            IntList smallest = lists[0];
+            for (int i = 0; i < smallest.size; i++) {
+                int ordinal = smallest.values[i];
+                if (names[ordinal] == null || !containsAll(lists, ordinal) || !names[ordinal].contains(normalized)) {
+                    continue;
+                }
+                if (result.size() == limit) return null;
+                result.add(ids[ordinal]);
+            }
+        }
+
+        if (result.isEmpty()) {
+            appendSimilar(normalized, trigrams, limit, result);
+        }
+        return result;
+    }
+
+    // Кандидаты с достаточным числом общих триграмм проверяются расстоянием Левенштейна
+    // до ближайшей подстроки, от большего числа совпадений к меньшему
+    private void appendSimilar(String query, long[] trigrams, int limit, List<Long> result) {
+        int maxEdits = query.length() < 5 ? 0 : query.length() < 9 ? 1 : 2;
+        if (maxEdits == 0) return;
+        int minHits = Math.max(1, trigrams.length - 3 * maxEdits);
+
+        byte[] hits = new byte[size];
+        for (long trigram : trigrams) {
+            IntList list = postings.get(trigram);
+            if (list == null) continue;
+            for (int i = 0; i < list.size; i++) {
+                hits[list.values[i]]++;
+            }
+        }
+
+        List<IntList> buckets = new ArrayList<>();
+        for (int i = 0; i <= trigrams.length; i++) buckets.add(new IntList());
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (hits[ordinal] >= minHits && names[ordinal] != null) {
+                buckets.get(hits[ordinal]).add(ordinal);
+            }
+        }
+
+        for (int count = trigrams.length; count >= minHits && result.size() < limit; count--) {
+            IntList bucket = buckets.get(count);
+            for (int i = 0; i < bucket.size && result.size() < limit; i++) {
+                int ordinal = bucket.values[i];
+                if (substringDistance(query, names[ordinal], maxEdits) <= maxEdits) {
+                    result.add(ids[ordinal]);
+                }
+            }
+        }
+    }
+
+    private static boolean containsAll(IntList[] lists, int ordinal) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i].values, 0, lists[i].size, ordinal) < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Наименьшее расстояние Левенштейна от pattern до подстроки text; при превышении max возвращает max + 1.
+     */
+    static int substringDistance(String pattern, String text, int max) {
+        int m = pattern.length();
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int i = 0; i <= m; i++) previous[i] = i;
+        int best = previous[m];
+        for (int j = 1; j <= text.length(); j++) {
+            // Начало совпадения в любой позиции text бесплатно
+            current[0] = 0;
+            char c = text.charAt(j - 1);
+            for (int i = 1; i <= m; i++) {
+                int substitution = previous[i - 1] + (pattern.charAt(i - 1) == c ? 0 : 1);
+                current[i] = Math.min(substitution, Math.min(previous[i] + 1, current[i - 1] + 1));
+            }
+            best = Math.min(best, current[m]);
+            if (best == 0) return 0;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(best, max + 1);
+    }
+
+    static String normalize(String value) {
+        if (value == null) return "";
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        boolean space = true;
+        for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == 'ё') c = 'е';
+            if (c >= 'а' && c <= 'я') {
+                sb.append(CYRILLIC[c - 'а']);
+                space = false;
+            } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int length = sb.length();
+        if (length > 0 && sb.charAt(length - 1) == ' ') sb.setLength(length - 1);
+        return sb.toString();
+    }
+
+    // Различные триграммы нормализованной строки
+    private static long[] trigrams(String normalized) {
+        int count = normalized.length() - 2;
+        if (count <= 0) return new long[0];
+        long[] trigrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = ((long) normalized.charAt(i) << 32) | ((long) normalized.charAt(i + 1) << 16)
+                    | normalized.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) trigrams[distinct++] = trigrams[i];
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.sbt.task.views;
 
 import com.google.common.eventbus.EventBus;
 import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -17,6 +18,7 @@ import com.vaadin.flow.component.tabs.TabSheet;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.spring.annotation.UIScope;
@@ -27,18 +29,24 @@ import ru.sbt.task.model.entity.Contract;
 import ru.sbt.task.model.entity.Employee;
 import ru.sbt.task.model.entity.Point;
 import ru.sbt.task.model.entity.Procuration;
-import ru.sbt.task.model.repository.ContractRepository;
 import ru.sbt.task.model.repository.EmployeeRepository;
 import ru.sbt.task.model.repository.PointRepository;
 import ru.sbt.task.model.repository.ProcurationRepository;
+import ru.sbt.task.service.CacheRegionStats;
+import ru.sbt.task.service.ContractReportService;
 import ru.sbt.task.service.DataChangedEvent;
+import ru.sbt.task.service.DataChangedEvent.ChangeType;
+import ru.sbt.task.service.EventDispatchExecutor;
+import ru.sbt.task.service.PointSummary;
+import ru.sbt.task.service.ReferenceCacheService;
 import ru.sbt.task.views.forms.EmployeeForm;
 import ru.sbt.task.views.forms.PointForm;
 import ru.sbt.task.views.forms.ProcurationForm;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 @Component
 @UIScope
 @Route(value = "admin", layout = MainView.class)
@@ -50,7 +58,7 @@ public class AdminView extends VerticalLayout {
     private final EmployeeRepository employeeRepository;
     private final PointRepository pointRepository;
     private final ProcurationRepository procurationRepository;
-    private final ContractRepository contractRepository;
+    private final ContractReportService contractReportService;
     private final EmployeeForm employeeForm;
     private final PointForm pointForm;
     private final ProcurationForm procurationForm;
@@ -60,25 +68,45 @@ public class AdminView extends VerticalLayout {
     private final TextField employeeFilter = new TextField();
     private final TextField pointFilter = new TextField();
     private final TextField procurationFilter = new TextField();
+    private final FilterResultCache<Employee> employeeFilterCache;
+    private final FilterResultCache<Point> pointFilterCache;
+    private final FilterResultCache<Procuration> procurationFilterCache;
     private final EventBus eventBus;
+    private final ReferenceCacheService referenceCacheService;
+    private final EventDispatchExecutor eventDispatchExecutor;
+    private final UiBroadcaster uiBroadcaster;
+    private Registration broadcastRegistration;
+    private Grid<PointSummary> reportGrid;
 
     @Autowired
     public AdminView(EmployeeRepository employeeRepo,
                      PointRepository pointRepo,
                      ProcurationRepository procurationRepo,
-                     ContractRepository contractRepo,
+                     ContractReportService contractReportService,
                      EmployeeForm employeeForm,
                      PointForm pointForm,
                      ProcurationForm procurationForm,
-                     EventBus eventBus) {
+                     EventBus eventBus,
+                     UiBroadcaster uiBroadcaster,
+                     ReferenceCacheService referenceCacheService,
+                     EventDispatchExecutor eventDispatchExecutor) {
         this.employeeRepository = employeeRepo;
         this.pointRepository = pointRepo;
         this.procurationRepository = procurationRepo;
-        this.contractRepository = contractRepo;
+        this.contractReportService = contractReportService;
         this.employeeForm = employeeForm;
         this.pointForm = pointForm;
         this.procurationForm = procurationForm;
         this.eventBus = eventBus;
+        this.uiBroadcaster = uiBroadcaster;
+        this.referenceCacheService = referenceCacheService;
+        this.eventDispatchExecutor = eventDispatchExecutor;
+        this.employeeFilterCache = new FilterResultCache<>(FilterResultCache.containsIgnoreCase(Employee::getFullName),
+                filter -> FilterResultCache.Result.narrowable(employeeRepository.findByFullNameContainingIgnoreCase(filter)));
+        this.pointFilterCache = new FilterResultCache<>(FilterResultCache.containsIgnoreCase(Point::getName),
+                filter -> FilterResultCache.Result.narrowable(pointRepository.findByNameContainingIgnoreCase(filter)));
+        this.procurationFilterCache = new FilterResultCache<>(FilterResultCache.containsIgnoreCase(Procuration::getNumber),
+                filter -> FilterResultCache.Result.narrowable(procurationRepository.findByNumberContainingIgnoreCase(filter)));
         setSizeFull();
         setPadding(true);
         setSpacing(true);
@@ -89,9 +117,54 @@ public class AdminView extends VerticalLayout {
     @Override
     protected void onAttach(AttachEvent attachEvent) {
         super.onAttach(attachEvent);
+        broadcastRegistration = uiBroadcaster.register(attachEvent.getUI(), this::applyChanges);
         refreshAllData();
     }
 
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        broadcastRegistration.remove();
+        super.onDetach(detachEvent);
+    }
+
+    // Вызывается внутри UI.access для пачки событий, накопленных за окно коалесцирования
+    private void applyChanges(List<DataChangedEvent> events) {
+        if (reportGrid != null && events.stream().anyMatch(e -> e.getEntityType() == Contract.class
+                || e.getEntityType() == Point.class)) {
+            reportGrid.setItems(contractReportService.buildPointSummary());
+        }
+        Map<Class<?>, List<DataChangedEvent>> byType = events.stream()
+                .collect(Collectors.groupingBy(DataChangedEvent::getEntityType, LinkedHashMap::new, Collectors.toList()));
+        byType.forEach((type, typeEvents) -> {
+            try {
+                if (type == Employee.class) {
+                    employeeFilterCache.invalidate();
+                    if (!employeeFilter.isEmpty() || !ListDelta.applyAll(employeeGrid.getListDataView(), typeEvents,
+                            Employee.class, Employee::getId, employeeRepository::findWithProcurationById)) {
+                        updateEmployeeList();
+                    }
+                } else if (type == Point.class) {
+                    pointFilterCache.invalidate();
+                    if (!pointFilter.isEmpty() || !ListDelta.applyAll(pointGrid.getListDataView(), typeEvents,
+                            Point.class, Point::getId, pointRepository::findById)) {
+                        updatePointList();
+                    }
+                } else if (type == Procuration.class) {
+                    procurationFilterCache.invalidate();
+                    employeeFilterCache.invalidate();
+                    if (!procurationFilter.isEmpty() || !ListDelta.applyAll(procurationGrid.getListDataView(), typeEvents,
+                            Procuration.class, Procuration::getId, procurationRepository::findById)) {
+                        updateProcurationList();
+                    }
+                    // Номер доверенности показывается в гриде сотрудников
+                    updateEmployeeList();
+                }
+            } catch (Exception e) {
+                Notification.show("Ошибка обновления данных: " + e.getMessage(), 3000, Notification.Position.BOTTOM_END);
+            }
+        });
+    }
+
     private void initTabs() {
         initEmployeeTab();
         initPointTab();
@@ -122,8 +195,9 @@ public class AdminView extends VerticalLayout {
         reportsLayout.setSpacing(true);
 
         Button reportBtn = new Button("Сводный отчет по точкам выдачи", e -> showSummaryReport());
+        Button cacheStatsBtn = new Button("Статистика кэша и событий", e -> showCacheStatistics());
 
-        HorizontalLayout toolbar = new HorizontalLayout(reportBtn);
+        HorizontalLayout toolbar = new HorizontalLayout(reportBtn, cacheStatsBtn);
         toolbar.setAlignItems(FlexComponent.Alignment.BASELINE);
         reportsLayout.add(toolbar);
 
@@ -131,45 +205,18 @@ public class AdminView extends VerticalLayout {
     }
 
     private void showSummaryReport() {
-        List<Point> points = pointRepository.findAll();
-
-        Grid<List<String>> reportGrid = new Grid<>();
+        Grid<PointSummary> reportGrid = new Grid<>();
+        this.reportGrid = reportGrid;
         reportGrid.setWidthFull();
 
-        reportGrid.addColumn(items -> items.get(0)).setHeader("Точка").setWidth("200px");
-        reportGrid.addColumn(items -> items.get(1)).setHeader("Всего договоров").setWidth("150px");
-        reportGrid.addColumn(items -> items.get(2)).setHeader("Активные договоры").setWidth("150px");
-        reportGrid.addColumn(items -> items.get(3)).setHeader("Сумма активных").setWidth("150px");
-        reportGrid.addColumn(items -> items.get(4)).setHeader("Неактивные договоры").setWidth("150px");
-        reportGrid.addColumn(items -> items.get(5)).setHeader("Сумма неактивных").setWidth("150px");
-
-        List<List<String>> reportData = new ArrayList<>();
-
-        for (Point point : points) {
-            List<Contract> allContracts = contractRepository.findByPoint(point);
-            List<Contract> activeContracts = contractRepository.findByPointAndStatus(point, "Активен");
-            List<Contract> inactiveContracts = contractRepository.findByPointAndStatus(point, "Неактивен");
-
-            BigDecimal activeSum = activeContracts.stream()
-                    .map(Contract::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal inactiveSum = inactiveContracts.stream()
-                    .map(Contract::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            List<String> row = new ArrayList<>();
-            row.add(point.getName());
-            row.add(String.valueOf(allContracts.size()));
-            row.add(String.valueOf(activeContracts.size()));
-            row.add(activeSum.toString());
-            row.add(String.valueOf(inactiveContracts.size()));
-            row.add(inactiveSum.toString());
-
-            reportData.add(row);
-        }
+        reportGrid.addColumn(PointSummary::getPointName).setHeader("Точка").setWidth("200px");
+        reportGrid.addColumn(PointSummary::getTotalCount).setHeader("Всего договоров").setWidth("150px");
+        reportGrid.addColumn(PointSummary::getActiveCount).setHeader("Активные договоры").setWidth("150px");
+        reportGrid.addColumn(PointSummary::getActiveSum).setHeader("Сумма активных").setWidth("150px");
+        reportGrid.addColumn(PointSummary::getInactiveCount).setHeader("Неактивные договоры").setWidth("150px");
+        reportGrid.addColumn(PointSummary::getInactiveSum).setHeader("Сумма неактивных").setWidth("150px");
 
-        reportGrid.setItems(reportData);
+        reportGrid.setItems(contractReportService.buildPointSummary());
 
         Dialog reportDialog = new Dialog();
         reportDialog.setWidth("90%");
@@ -191,9 +238,47 @@ public class AdminView extends VerticalLayout {
         dialogLayout.add(headerLayout, reportGrid);
 
         reportDialog.add(dialogLayout);
+        // Пока отчет открыт, он пересчитывается по событиям договоров
+        reportDialog.addOpenedChangeListener(e -> {
+            if (!e.isOpened() && this.reportGrid == reportGrid) this.reportGrid = null;
+        });
         reportDialog.open();
     }
 
+    private void showCacheStatistics() {
+        Grid<CacheRegionStats> statsGrid = new Grid<>();
+        statsGrid.setWidthFull();
+        statsGrid.addColumn(CacheRegionStats::getRegion).setHeader("Регион").setAutoWidth(true);
+        statsGrid.addColumn(CacheRegionStats::getHits).setHeader("Попадания");
+        statsGrid.addColumn(CacheRegionStats::getMisses).setHeader("Промахи");
+        statsGrid.addColumn(CacheRegionStats::getPuts).setHeader("Записи");
+        statsGrid.addColumn(CacheRegionStats::getHitRatio).setHeader("Доля попаданий");
+        statsGrid.setItems(referenceCacheService.getStatistics());
+
+        Span eventStats = new Span(String.format(
+                "События: в очереди %d, в обработке %d, доставлено %d, в потоке издателя %d, " +
+                        "задержка средняя %.1f мс, максимальная %.1f мс",
+                eventDispatchExecutor.getQueueDepth(),
+                eventDispatchExecutor.getActiveCount(),
+                eventDispatchExecutor.getDispatchedCount(),
+                eventDispatchExecutor.getCallerRunsCount(),
+                eventDispatchExecutor.getAverageLatencyMillis(),
+                eventDispatchExecutor.getMaxLatencyMillis()));
+
+        Dialog statsDialog = new Dialog();
+        statsDialog.setWidth("70%");
+        Button closeButton = new Button(VaadinIcon.CLOSE.create(), event -> statsDialog.close());
+        closeButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+
+        HorizontalLayout headerLayout = new HorizontalLayout(new Span("Кэш второго уровня и очередь событий:"), closeButton);
+        headerLayout.setWidthFull();
+        headerLayout.setJustifyContentMode(FlexComponent.JustifyContentMode.BETWEEN);
+        headerLayout.setAlignItems(FlexComponent.Alignment.CENTER);
+
+        statsDialog.add(new VerticalLayout(headerLayout, statsGrid, eventStats));
+        statsDialog.open();
+    }
+
     private void refreshAllData() {
         getUI().ifPresent(ui -> ui.access(() -> {
             try {
@@ -228,11 +313,7 @@ public class AdminView extends VerticalLayout {
             employeeForm.setParentDialog(dialog);
             dialog.add(employeeForm);
             employeeForm.editEmployee(new Employee());
-            employeeForm.setSaveHandler(() -> {
-                employeeRepository.save(employeeForm.getEmployee());
-                refreshEmployeeData();
-                eventBus.post(new DataChangedEvent(Employee.class));
-            });
+            employeeForm.setSaveHandler(() -> saveEmployee(employeeForm.getEmployee()));
             dialog.open();
         });
 
@@ -270,11 +351,7 @@ public class AdminView extends VerticalLayout {
                 employeeForm.setParentDialog(dialog);
                 dialog.add(employeeForm);
                 employeeForm.editEmployee(employee);
-                employeeForm.setSaveHandler(() -> {
-                    employeeRepository.save(employeeForm.getEmployee());
-                    refreshEmployeeData();
-                    eventBus.post(new DataChangedEvent(Employee.class));
-                });
+                employeeForm.setSaveHandler(() -> saveEmployee(employeeForm.getEmployee()));
                 dialog.open();
             });
 
@@ -298,10 +375,17 @@ public class AdminView extends VerticalLayout {
         if (employeeFilter.getValue().isEmpty()) {
             employeeGrid.setItems(employeeRepository.findAll());
         } else {
-            employeeGrid.setItems(employeeRepository.findByFullNameContainingIgnoreCase(employeeFilter.getValue()));
+            employeeGrid.setItems(employeeFilterCache.get(employeeFilter.getValue()));
         }
     }
 
+    private void saveEmployee(Employee employee) {
+        ChangeType type = employee.getId() == null ? ChangeType.CREATE : ChangeType.UPDATE;
+        employeeRepository.save(employee);
+        ListDelta.apply(employeeGrid.getListDataView(), employee, type, Employee::getId);
+        eventBus.post(new DataChangedEvent(Employee.class, employee, type));
+    }
+
     private void confirmEmployeeDeletion(Employee employee) {
         Dialog confirmDialog = new Dialog();
         confirmDialog.setCloseOnEsc(false);
@@ -324,7 +408,8 @@ public class AdminView extends VerticalLayout {
     private void deleteEmployee(Employee employee) {
         try {
             employeeRepository.delete(employee);
-            refreshEmployeeData();
+            ListDelta.apply(employeeGrid.getListDataView(), employee, ChangeType.DELETE, Employee::getId);
+            eventBus.post(new DataChangedEvent(Employee.class, employee, ChangeType.DELETE));
             Notification.show("Сотрудник удален", 3000, Notification.Position.BOTTOM_END);
         } catch (Exception e) {
             Notification.show("Ошибка удаления: " + e.getMessage(), 3000, Notification.Position.BOTTOM_END);
@@ -358,11 +443,7 @@ public class AdminView extends VerticalLayout {
             pointForm.setParentDialog(dialog);
             dialog.add(pointForm);
             pointForm.editPoint(new Point());
-            pointForm.setSaveHandler(() -> {
-                pointRepository.save(pointForm.getPoint());
-                refreshPointData();
-                eventBus.post(new DataChangedEvent(Point.class));
-            });
+            pointForm.setSaveHandler(() -> savePoint(pointForm.getPoint()));
             dialog.open();
         });
 
@@ -396,11 +477,7 @@ public class AdminView extends VerticalLayout {
                 pointForm.setParentDialog(dialog);
                 dialog.add(pointForm);
                 pointForm.editPoint(point);
-                pointForm.setSaveHandler(() -> {
-                    pointRepository.save(pointForm.getPoint());
-                    refreshPointData();
-                    eventBus.post(new DataChangedEvent(Point.class));
-                });
+                pointForm.setSaveHandler(() -> savePoint(pointForm.getPoint()));
                 dialog.open();
             });
 
@@ -424,10 +501,17 @@ public class AdminView extends VerticalLayout {
         if (pointFilter.getValue().isEmpty()) {
             pointGrid.setItems(pointRepository.findAll());
         } else {
-            pointGrid.setItems(pointRepository.findByNameContainingIgnoreCase(pointFilter.getValue()));
+            pointGrid.setItems(pointFilterCache.get(pointFilter.getValue()));
         }
     }
 
+    private void savePoint(Point point) {
+        ChangeType type = point.getId() == null ? ChangeType.CREATE : ChangeType.UPDATE;
+        pointRepository.save(point);
+        ListDelta.apply(pointGrid.getListDataView(), point, type, Point::getId);
+        eventBus.post(new DataChangedEvent(Point.class, point, type));
+    }
+
     private void confirmPointDeletion(Point point) {
         Dialog confirmDialog = new Dialog();
         confirmDialog.setCloseOnEsc(false);
@@ -450,7 +534,8 @@ public class AdminView extends VerticalLayout {
     private void deletePoint(Point point) {
         try {
             pointRepository.delete(point);
-            refreshPointData();
+            ListDelta.apply(pointGrid.getListDataView(), point, ChangeType.DELETE, Point::getId);
+            eventBus.post(new DataChangedEvent(Point.class, point, ChangeType.DELETE));
             Notification.show("Точка удалена", 3000, Notification.Position.BOTTOM_END);
         } catch (Exception e) {
             Notification.show("Ошибка удаления: " + e.getMessage(), 3000, Notification.Position.BOTTOM_END);
@@ -484,12 +569,7 @@ public class AdminView extends VerticalLayout {
             procurationForm.setParentDialog(dialog);
             dialog.add(procurationForm);
             procurationForm.editProcuration(new Procuration());
-            procurationForm.setSaveHandler(() -> {
-                procurationRepository.save(procurationForm.getProcuration());
-                refreshProcurationData();
-                // Доверенности влияют на сотрудников
-                eventBus.post(new DataChangedEvent(Employee.class));
-            });
+            procurationForm.setSaveHandler(() -> saveProcuration(procurationForm.getProcuration()));
             dialog.open();
         });
 
@@ -523,12 +603,7 @@ public class AdminView extends VerticalLayout {
                 procurationForm.setParentDialog(dialog);
                 dialog.add(procurationForm);
                 procurationForm.editProcuration(procuration);
-                procurationForm.setSaveHandler(() -> {
-                    procurationRepository.save(procurationForm.getProcuration());
-                    refreshProcurationData();
-                    // Доверенности влияют на сотрудников
-                    eventBus.post(new DataChangedEvent(Employee.class));
-                });
+                procurationForm.setSaveHandler(() -> saveProcuration(procurationForm.getProcuration()));
                 dialog.open();
             });
 
@@ -552,10 +627,17 @@ public class AdminView extends VerticalLayout {
         if (procurationFilter.getValue().isEmpty()) {
             procurationGrid.setItems(procurationRepository.findAll());
         } else {
-            procurationGrid.setItems(procurationRepository.findByNumberContainingIgnoreCase(procurationFilter.getValue()));
+            procurationGrid.setItems(procurationFilterCache.get(procurationFilter.getValue()));
         }
     }
 
+    private void saveProcuration(Procuration procuration) {
+        ChangeType type = procuration.getId() == null ? ChangeType.CREATE : ChangeType.UPDATE;
+        procurationRepository.save(procuration);
+        ListDelta.apply(procurationGrid.getListDataView(), procuration, type, Procuration::getId);
+        eventBus.post(new DataChangedEvent(Procuration.class, procuration, type));
+    }
+
     private void confirmProcurationDeletion(Procuration procuration) {
         Dialog confirmDialog = new Dialog();
         confirmDialog.setCloseOnEsc(false);
@@ -578,7 +660,8 @@ public class AdminView extends VerticalLayout {
     private void deleteProcuration(Procuration procuration) {
         try {
             procurationRepository.delete(procuration);
-            refreshProcurationData();
+            ListDelta.apply(procurationGrid.getListDataView(), procuration, ChangeType.DELETE, Procuration::getId);
+            eventBus.post(new DataChangedEvent(Procuration.class, procuration, ChangeType.DELETE));
             Notification.show("Доверенность удалена", 3000, Notification.Position.BOTTOM_END);
         } catch (Exception e) {
             Notification.show("Ошибка удаления: " + e.getMessage(), 3000, Notification.Position.BOTTOM_END);
@@ -1,52 +1,79 @@
 package ru.sbt.task.views;
 
+import com.google.common.eventbus.EventBus;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.notification.Notification;
-import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.TabSheet;
+import com.vaadin.flow.component.textfield.BigDecimalField;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.component.upload.receivers.FileBuffer;
+import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.spring.annotation.UIScope;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import ru.sbt.task.model.entity.Client;
 import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.entity.Employee;
 import ru.sbt.task.model.entity.Point;
 import ru.sbt.task.model.repository.ClientRepository;
+import ru.sbt.task.model.repository.ContractFilter;
 import ru.sbt.task.model.repository.ContractRepository;
 import ru.sbt.task.model.repository.EmployeeRepository;
 import ru.sbt.task.model.repository.PointRepository;
+import ru.sbt.task.service.ClientNameIndex;
+import ru.sbt.task.service.ContractBulkExportService;
+import ru.sbt.task.service.ContractExportJob;
+import ru.sbt.task.service.ContractImportJob;
+import ru.sbt.task.service.ContractImportService;
+import ru.sbt.task.service.ContractService;
+import ru.sbt.task.service.DataChangedEvent;
+import ru.sbt.task.service.DataChangedEvent.ChangeType;
+import ru.sbt.task.service.SecurityService;
 import ru.sbt.task.views.forms.ClientForm;
 import ru.sbt.task.views.forms.ContractForm;
+import ru.sbt.task.web.ContractExportController;
+import ru.sbt.task.web.ContractListExportController;
+import ru.sbt.task.web.ContractPdfController;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRequest;
 
 @Component
 @UIScope
@@ -55,8 +82,19 @@ import java.util.Base64;
 public class ClientContractView extends VerticalLayout {
 
     private static final Logger logger = LoggerFactory.getLogger(ClientContractView.class);
+    private static final long PROGRESS_INTERVAL_MILLIS = 500;
 
     private final ContractRepository contractRepository;
+    private final ContractService contractService;
+    private final PointRepository pointRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ContractBulkExportService exportService;
+    private final ContractImportService importService;
+    private final ClientNameIndex clientNameIndex;
+    private final SecurityService securityService;
+    private final EventBus eventBus;
+    private final UiBroadcaster uiBroadcaster;
+    private Registration broadcastRegistration;
     private final ClientRepository clientRepository;
     private final ContractForm contractForm;
     private final ClientForm clientForm;
@@ -66,6 +104,23 @@ public class ClientContractView extends VerticalLayout {
     private final TabSheet tabSheet = new TabSheet();
 
     private final TextField contractFilter = new TextField();
+    private final ComboBox<ContractStatus> statusFilter = new ComboBox<>();
+    private final ComboBox<Point> pointFilter = new ComboBox<>();
+    private final ComboBox<Employee> employeeFilter = new ComboBox<>();
+    private final BigDecimalField amountFromFilter = new BigDecimalField();
+    private final BigDecimalField amountToFilter = new BigDecimalField();
+    private final DatePicker issueDateFromFilter = new DatePicker();
+    private final DatePicker issueDateToFilter = new DatePicker();
+    private final DatePicker termFromFilter = new DatePicker();
+    private final DatePicker termToFilter = new DatePicker();
+    // Число договоров по фильтру: сами договоры грузятся страницами и не кэшируются
+    private final Map<ContractFilter, Long> contractCounts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ContractFilter, Long> eldest) {
+            return size() > 16;
+        }
+    };
+    private final FilterResultCache<Client> clientFilterCache;
     private final TextField clientFilter = new TextField();
 
     @Autowired
@@ -73,12 +128,31 @@ public class ClientContractView extends VerticalLayout {
                               ClientRepository clientRepository,
                               EmployeeRepository employeeRepository,
                               PointRepository pointRepository,
+                              ContractService contractService,
+                              ContractBulkExportService exportService,
+                              ContractImportService importService,
+                              SecurityService securityService,
+                              ClientNameIndex clientNameIndex,
+                              EventBus eventBus,
+                              UiBroadcaster uiBroadcaster,
                               ContractForm contractForm,
                               ClientForm clientForm) {
         this.contractRepository = contractRepository;
+        this.contractService = contractService;
+        this.pointRepository = pointRepository;
+        this.employeeRepository = employeeRepository;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.securityService = securityService;
+        this.clientNameIndex = clientNameIndex;
+        this.eventBus = eventBus;
+        this.uiBroadcaster = uiBroadcaster;
         this.clientRepository = clientRepository;
         this.contractForm = contractForm;
         this.clientForm = clientForm;
+        this.clientFilterCache = new FilterResultCache<>(
+                (client, filter) -> ClientNameIndex.matches(client.getFullName(), filter),
+                this::loadClients);
 
         setSizeFull();
         configureGrids();
@@ -100,26 +174,26 @@ public class ClientContractView extends VerticalLayout {
 
         contractGrid.addColumn(c -> c.getClient() != null ? c.getClient().getFullName() : "")
                 .setHeader("Клиент")
-                .setSortable(true);
+                .setSortProperty("client.fullName");
 
         contractGrid.addColumn(Contract::getAmount)
                 .setHeader("Сумма")
-                .setSortable(true);
+                .setSortProperty("amount");
 
         contractGrid.addColumn(Contract::getTerm)
                 .setHeader("Срок до")
-                .setSortable(true);
+                .setSortProperty("term");
 
         contractGrid.addColumn(c -> c.getEmployee() != null ? c.getEmployee().getFullName() : "")
                 .setHeader("Сотрудник");
 
-        contractGrid.addColumn(Contract::getStatus)
+        contractGrid.addColumn(c -> c.getStatus() != null ? c.getStatus().getTitle() : "")
                 .setHeader("Статус")
-                .setSortable(true);
+                .setSortProperty("status");
 
         contractGrid.addColumn(c -> c.getPoint() != null ? c.getPoint().getName() : "")
                 .setHeader("Точка выдачи")
-                .setSortable(true);
+                .setSortProperty("point.name");
 
         contractGrid.addColumn(new ComponentRenderer<>(contract -> {
             HorizontalLayout actions = new HorizontalLayout();
@@ -133,16 +207,22 @@ public class ClientContractView extends VerticalLayout {
             deleteBtn.addClickListener(e -> confirmContractDeletion(contract));
             Button downloadBtn = new Button(VaadinIcon.DOWNLOAD.create());
             downloadBtn.addThemeVariants(ButtonVariant.LUMO_SMALL);
-            downloadBtn.addClickListener(e -> downloadPdfContract(contract));
+            Anchor downloadLink = new Anchor(ContractPdfController.pdfUrl(contract), "");
+            downloadLink.getElement().setAttribute("download", true);
+            downloadLink.add(downloadBtn);
 
             Button closeBtn = new Button("Закрыть");
             closeBtn.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_PRIMARY);
-            closeBtn.setVisible("Активен".equals(contract.getStatus()));
+            closeBtn.setVisible(contract.getStatus() == ContractStatus.ACTIVE);
             closeBtn.addClickListener(e -> closeContract(contract));
 
-            actions.add(editBtn, deleteBtn, downloadBtn, closeBtn);
+            actions.add(editBtn, deleteBtn, downloadLink, closeBtn);
             return actions;
         })).setHeader("Действия").setWidth("250px");
+
+        // Ленивая загрузка: грид запрашивает только видимую страницу, сортировка уходит в ORDER BY
+        contractGrid.setItems(this::fetchContracts, query -> (int) countContracts())
+                .setIdentifierProvider(Contract::getId);
     }
     private void closeContract(Contract contract) {
         if (contract == null) return;
@@ -157,9 +237,9 @@ public class ClientContractView extends VerticalLayout {
         confirmBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         confirmBtn.addClickListener(e -> {
             try {
-                contract.setStatus("Закрыт");
-                contractRepository.save(contract);
-                updateContractList();
+                contractService.close(contract);
+                if (refreshContract(contract, currentContractFilter())) updateContractList();
+                eventBus.post(new DataChangedEvent(Contract.class, contract, ChangeType.UPDATE));
                 confirmDialog.close();
                 Notification.show("Договор закрыт", 3000, Notification.Position.BOTTOM_END);
             } catch (Exception ex) {
@@ -176,76 +256,171 @@ public class ClientContractView extends VerticalLayout {
         confirmDialog.add(new VerticalLayout(message, buttons));
         confirmDialog.open();
     }
-    private void downloadPdfContract(Contract contract) {
-        try {
-            byte[] pdfBytes = generatePdfBytes(contract);
-            String base64Pdf = Base64.getEncoder().encodeToString(pdfBytes);
-            UI.getCurrent().getPage().executeJs("const byteChars = atob($0);" +
-                            "const byteNumbers = new Array(byteChars.length);" +
-                            "for (let i = 0; i < byteChars.length; i++) {" +
-                            "    byteNumbers[i] = byteChars.charCodeAt(i);" +
-                            "}" +
-                            "const byteArray = new Uint8Array(byteNumbers);" +
-                            "const blob = new Blob([byteArray], {type: 'application/pdf'});" +
-                            "const link = document.createElement('a');" +
-                            "link.href = URL.createObjectURL(blob);" +
-                            "link.download = 'contract_" + contract.getId() + ".pdf';" +
-                            "link.click();" +
-                            "setTimeout(() => URL.revokeObjectURL(link.href), 100);",
-                    base64Pdf
-            );
+    private void openBulkExportDialog() {
+        Dialog dialog = new Dialog();
+        dialog.setWidth("500px");
 
-        } catch (Exception e) {
-            Notification.show("Ошибка: " + e.getMessage(), 5000, Notification.Position.MIDDLE)
-                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+        ComboBox<Point> pointCombo = new ComboBox<>("Точка выдачи");
+        pointCombo.setItems(pointRepository.findAll());
+        pointCombo.setItemLabelGenerator(Point::getName);
+        pointCombo.setPlaceholder("Договоры текущего фильтра");
+        pointCombo.setClearButtonVisible(true);
+        pointCombo.setWidthFull();
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setVisible(false);
+        Span progressText = new Span();
+
+        Button startBtn = new Button("Сформировать архив", VaadinIcon.DOWNLOAD.create());
+        startBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        startBtn.addClickListener(e -> {
+            try {
+                ContractExportJob job = createExportJob(pointCombo.getValue());
+                if (job.getTotal() == 0) {
+                    Notification.show("Нет договоров для выгрузки", 3000, Notification.Position.BOTTOM_END);
+                    return;
+                }
+                startBtn.setEnabled(false);
+                pointCombo.setEnabled(false);
+                progressBar.setVisible(true);
+                trackExportProgress(job, dialog, progressBar, progressText);
+                download(ContractExportController.zipUrl(job));
+            } catch (Exception ex) {
+                Notification.show("Ошибка выгрузки: " + ex.getMessage(), 5000, Notification.Position.BOTTOM_END);
+                logger.error("Error starting contract export", ex);
+            }
+        });
+
+        Button closeBtn = new Button("Закрыть", ev -> dialog.close());
+
+        HorizontalLayout buttons = new HorizontalLayout(startBtn, closeBtn);
+        buttons.setJustifyContentMode(FlexComponent.JustifyContentMode.END);
+
+        VerticalLayout dialogLayout = new VerticalLayout(new Span("Выгрузка договоров в PDF"),
+                pointCombo, progressBar, progressText, buttons);
+        dialogLayout.setPadding(true);
+        dialog.add(dialogLayout);
+        dialog.open();
+    }
+
+    private void download(String url) {
+        UI.getCurrent().getPage().executeJs("const link = document.createElement('a');" +
+                "link.href = $0;" +
+                "link.download = '';" +
+                "link.click();", url);
+    }
+
+    private ContractExportJob createExportJob(Point point) {
+        ContractFilter filter;
+        String fileName;
+        if (point != null) {
+            filter = new ContractFilter(null, null, null, point.getId(), null, null, null, null, null, null, null);
+            fileName = "contracts_point_" + point.getId() + ".zip";
+        } else {
+            filter = currentContractFilter();
+            fileName = filter.isEmpty() ? "contracts.zip" : "contracts_filtered.zip";
         }
+        return exportService.createJob(securityService.getCurrentUsername(), fileName, filter);
     }
-    private byte[] generatePdfBytes(Contract contract) throws IOException {
-        try (PDDocument doc = new PDDocument()) {
-            PDPage page = new PDPage(PDRectangle.A4);
-            doc.addPage(page);
-            PDFont font;
-            try (InputStream fontStream = getClass().getResourceAsStream("/fonts/arial.ttf")) {
-                if (fontStream != null) {
-                    font = PDType0Font.load(doc, fontStream);
-                } else {
-                    throw new IOException("Шрифт arial.ttf не найден в resources/fonts/");
-                }
+
+    // Прогресс считается на стороне HTTP-выгрузки и доставляется push-ом, пока архив не готов
+    private void trackExportProgress(ContractExportJob job, Dialog dialog, ProgressBar progressBar, Span progressText) {
+        trackProgress(dialog, () -> {
+            progressBar.setValue(job.getProgress());
+            progressText.setText("Готово " + job.getCompleted() + " из " + job.getTotal() +
+                    (job.getFailed() > 0 ? ", ошибок: " + job.getFailed() : ""));
+            if (!job.isFinished()) return true;
+            Notification.show("Выгрузка завершена", 3000, Notification.Position.BOTTOM_END);
+            return false;
+        });
+    }
+
+    /**
+     * Обновляет индикатор задачи, пока {@code update} возвращает true и открыт диалог.
+     * У каждой задачи свой опрос, поэтому завершение одной не останавливает другие.
+     */
+    private void trackProgress(Dialog dialog, BooleanSupplier update) {
+        Registration polling = uiBroadcaster.poll(UI.getCurrent(), PROGRESS_INTERVAL_MILLIS, update);
+        Registration[] closed = new Registration[1];
+        closed[0] = dialog.addOpenedChangeListener(event -> {
+            if (!event.isOpened()) {
+                polling.remove();
+                closed[0].remove();
             }
-            try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
-                cs.beginText();
-                cs.setFont(font, 12);
-                cs.setLeading(16f);
-                cs.newLineAtOffset(50, 700);
-                cs.setFont(font, 14);
-                cs.showText("ДОГОВОР №" + contract.getId());
-                cs.newLine();
-                cs.newLine();
-                cs.setFont(font, 12);
-                cs.showText("Клиент: " + (contract.getClient() != null ?
-                        contract.getClient().getFullName() : "Не указан"));
-                cs.newLine();
-                cs.showText("Сумма: " + contract.getAmount());
-                cs.newLine();
-                cs.showText("Срок: " + contract.getTerm());
-                cs.newLine();
-                cs.showText("Точка выдачи: " + (contract.getPoint() != null ?
-                        contract.getPoint().getName() + " по адресу " + contract.getPoint().getAddress(): "Не указано"));
-                cs.newLine();
-                cs.showText("Менеджер: " + (contract.getEmployee() != null ?
-                        contract.getEmployee().getFullName() : "Не назначен"));
-                cs.newLine();
-                cs.showText("Статус: " + contract.getStatus());
-                cs.newLine();
-                cs.newLine();
-                cs.endText();
+        });
+    }
+
+    private void openImportDialog() {
+        Dialog dialog = new Dialog();
+        dialog.setWidth("700px");
+
+        Span format = new Span("Колонки: client_full_name; client_phone; amount; term; issue_date; status; point; " +
+                "employee_login. Строки без суммы добавляют только клиента.");
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setVisible(false);
+        Span progressText = new Span();
+
+        Grid<ContractImportJob.RowError> errorGrid = new Grid<>();
+        errorGrid.addColumn(ContractImportJob.RowError::line).setHeader("Строка").setAutoWidth(true).setFlexGrow(0);
+        errorGrid.addColumn(ContractImportJob.RowError::message).setHeader("Ошибка");
+        errorGrid.setHeight("250px");
+        errorGrid.setVisible(false);
+
+        // Файл принимается во временный файл на диске, в память целиком не читается
+        FileBuffer buffer = new FileBuffer();
+        Upload upload = new Upload(buffer);
+        upload.setAcceptedFileTypes(".csv", "text/csv");
+        upload.setMaxFiles(1);
+        upload.addSucceededListener(event -> {
+            try {
+                Employee current = securityService.getCurrentEmployee();
+                ContractImportJob job = importService.start(securityService.getCurrentUsername(),
+                        current != null ? current.getId() : null,
+                        event.getFileName(), buffer.getFileData().getFile());
+                upload.setVisible(false);
+                progressBar.setVisible(true);
+                trackImportProgress(job, dialog, progressBar, progressText, errorGrid);
+            } catch (Exception ex) {
+                Notification.show("Ошибка импорта: " + ex.getMessage(), 5000, Notification.Position.BOTTOM_END);
+                logger.error("Error starting contract import", ex);
             }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            doc.save(out);
-            return out.toByteArray();
-        }
+        });
+
+        Button closeBtn = new Button("Закрыть", ev -> dialog.close());
+        HorizontalLayout buttons = new HorizontalLayout(closeBtn);
+        buttons.setJustifyContentMode(FlexComponent.JustifyContentMode.END);
+
+        VerticalLayout dialogLayout = new VerticalLayout(new Span("Импорт клиентов и договоров"), format,
+                upload, progressBar, progressText, errorGrid, buttons);
+        dialogLayout.setPadding(true);
+        dialog.add(dialogLayout);
+        dialog.open();
     }
-            private void configureClientGrid() {
+
+    private void trackImportProgress(ContractImportJob job, Dialog dialog, ProgressBar progressBar, Span progressText,
+                                     Grid<ContractImportJob.RowError> errorGrid) {
+        trackProgress(dialog, () -> {
+            progressBar.setValue(job.getProgress());
+            progressText.setText("Обработано строк: " + job.getProcessedRows() +
+                    ", клиентов добавлено: " + job.getImportedClients() +
+                    ", договоров добавлено: " + job.getImportedContracts() +
+                    (job.getFailedRows() > 0 ? ", ошибок: " + job.getFailedRows() : ""));
+            if (!job.isFinished()) return true;
+            if (job.getFailedRows() > 0) {
+                errorGrid.setItems(job.getErrors());
+                errorGrid.setVisible(true);
+            }
+            if (job.getFailure() != null) {
+                Notification.show("Импорт прерван: " + job.getFailure(), 5000, Notification.Position.BOTTOM_END);
+            } else {
+                Notification.show("Импорт завершен", 3000, Notification.Position.BOTTOM_END);
+            }
+            return false;
+        });
+    }
+
+    private void configureClientGrid() {
         clientGrid.removeAllColumns();
 
         clientGrid.addColumn(Client::getId)
@@ -290,9 +465,30 @@ public class ClientContractView extends VerticalLayout {
         Button refreshContractBtn = new Button("Обновить", VaadinIcon.REFRESH.create());
         refreshContractBtn.addClickListener(e -> updateContractList());
 
-        HorizontalLayout contractToolbar = new HorizontalLayout(contractFilter, addContractBtn, refreshContractBtn);
+        Button exportPdfBtn = new Button("Выгрузить PDF", VaadinIcon.FILE_ZIP.create());
+        exportPdfBtn.addClickListener(e -> openBulkExportDialog());
+
+        Button importCsvBtn = new Button("Импорт CSV", VaadinIcon.UPLOAD.create());
+        importCsvBtn.addClickListener(e -> openImportDialog());
+
+        // Выгрузка списка идет потоком с сервера по текущему фильтру, грид для этого не читается
+        Button exportCsvBtn = new Button("CSV", VaadinIcon.DOWNLOAD.create());
+        exportCsvBtn.addClickListener(e -> download(ContractListExportController.csvUrl(currentContractFilter())));
+        Button exportXlsxBtn = new Button("XLSX", VaadinIcon.FILE_TABLE.create());
+        exportXlsxBtn.addClickListener(e -> download(ContractListExportController.xlsxUrl(currentContractFilter())));
+
+        HorizontalLayout contractToolbar = new HorizontalLayout(contractFilter, addContractBtn, refreshContractBtn,
+                exportPdfBtn, exportCsvBtn, exportXlsxBtn, importCsvBtn);
         contractToolbar.setAlignItems(FlexComponent.Alignment.BASELINE);
-        contractsLayout.add(contractToolbar, contractGrid);
+
+        Button resetFilterBtn = new Button("Сбросить", VaadinIcon.CLOSE_SMALL.create());
+        resetFilterBtn.addClickListener(e -> resetContractFilter());
+        HorizontalLayout contractFilterBar = new HorizontalLayout(statusFilter, pointFilter, employeeFilter,
+                amountFromFilter, amountToFilter, issueDateFromFilter, issueDateToFilter, termFromFilter, termToFilter,
+                resetFilterBtn);
+        contractFilterBar.setAlignItems(FlexComponent.Alignment.BASELINE);
+        contractFilterBar.getStyle().set("flex-wrap", "wrap");
+        contractsLayout.add(contractToolbar, contractFilterBar, contractGrid);
 
         VerticalLayout clientsLayout = new VerticalLayout();
         clientsLayout.setSizeFull();
@@ -330,7 +526,65 @@ public class ClientContractView extends VerticalLayout {
         contractFilter.setPlaceholder("Фильтр по клиенту...");
         contractFilter.setClearButtonVisible(true);
         contractFilter.setValueChangeMode(ValueChangeMode.LAZY);
-        contractFilter.addValueChangeListener(e -> updateContractList());
+        contractFilter.addValueChangeListener(e -> contractGrid.getDataProvider().refreshAll());
+
+        statusFilter.setPlaceholder("Статус");
+        statusFilter.setItemLabelGenerator(ContractStatus::getTitle);
+        statusFilter.setItems(ContractStatus.values());
+        // По умолчанию видны только активные договоры: выборка идет по idx_contract_status
+        statusFilter.setValue(ContractStatus.ACTIVE);
+        pointFilter.setPlaceholder("Точка выдачи");
+        pointFilter.setItemLabelGenerator(Point::getName);
+        pointFilter.setItems(pointRepository.findAll());
+        employeeFilter.setPlaceholder("Сотрудник");
+        employeeFilter.setItemLabelGenerator(Employee::getFullName);
+        employeeFilter.setItems(employeeRepository.findAll());
+        amountFromFilter.setPlaceholder("Сумма от");
+        amountToFilter.setPlaceholder("Сумма до");
+        issueDateFromFilter.setPlaceholder("Выдан с");
+        issueDateToFilter.setPlaceholder("Выдан по");
+        termFromFilter.setPlaceholder("Срок с");
+        termToFilter.setPlaceholder("Срок по");
+
+        for (ComboBox<?> combo : List.of(statusFilter, pointFilter, employeeFilter)) {
+            combo.setClearButtonVisible(true);
+            combo.addValueChangeListener(e -> contractGrid.getDataProvider().refreshAll());
+        }
+        for (BigDecimalField field : List.of(amountFromFilter, amountToFilter)) {
+            field.setClearButtonVisible(true);
+            field.setWidth("9em");
+            field.setValueChangeMode(ValueChangeMode.LAZY);
+            field.addValueChangeListener(e -> contractGrid.getDataProvider().refreshAll());
+        }
+        for (DatePicker picker : List.of(issueDateFromFilter, issueDateToFilter, termFromFilter, termToFilter)) {
+            picker.setClearButtonVisible(true);
+            picker.setWidth("9em");
+            picker.addValueChangeListener(e -> contractGrid.getDataProvider().refreshAll());
+        }
+    }
+
+    private void resetContractFilter() {
+        statusFilter.setValue(ContractStatus.ACTIVE);
+        pointFilter.clear();
+        employeeFilter.clear();
+        amountFromFilter.clear();
+        amountToFilter.clear();
+        issueDateFromFilter.clear();
+        issueDateToFilter.clear();
+        termFromFilter.clear();
+        termToFilter.clear();
+    }
+
+    // Клиенты по тексту ищутся индексом ФИО; если он не помог, подстрока имени уходит в запрос как LIKE
+    private ContractFilter currentContractFilter() {
+        String clientName = contractFilter.getValue().trim();
+        List<Long> clientIds = clientName.isEmpty() ? null : clientNameIndex.search(clientName).orElse(null);
+        return new ContractFilter(clientName.isEmpty() ? null : clientName, clientIds, statusFilter.getValue(),
+                pointFilter.isEmpty() ? null : pointFilter.getValue().getId(),
+                employeeFilter.isEmpty() ? null : employeeFilter.getValue().getId(),
+                amountFromFilter.getValue(), amountToFilter.getValue(),
+                issueDateFromFilter.getValue(), issueDateToFilter.getValue(),
+                termFromFilter.getValue(), termToFilter.getValue());
     }
 
     private void configureClientFilter() {
@@ -343,8 +597,7 @@ public class ClientContractView extends VerticalLayout {
     private void addListeners() {
         contractForm.setSaveHandler(() -> {
             try {
-                contractRepository.save(contractForm.getContract());
-                updateContractList();
+                saveContract(contractForm.getContract());
                 Notification.show("Договор сохранен", 3000, Notification.Position.BOTTOM_END);
                 logger.info("Contract saved: {}", contractForm.getContract().getId());
             } catch (Exception e) {
@@ -356,8 +609,7 @@ public class ClientContractView extends VerticalLayout {
 
         clientForm.setSaveHandler(() -> {
             try {
-                clientRepository.save(clientForm.getClient());
-                updateClientList();
+                saveClient(clientForm.getClient(), ChangeType.UPDATE);
                 Notification.show("Клиент сохранен", 3000, Notification.Position.BOTTOM_END);
                 logger.info("Client saved: {}", clientForm.getClient().getId());
             } catch (Exception e) {
@@ -368,21 +620,150 @@ public class ClientContractView extends VerticalLayout {
         });
     }
 
+    private void saveContract(Contract contract) {
+        ChangeType type = contract.getId() == null ? ChangeType.CREATE : ChangeType.UPDATE;
+        contractService.save(contract);
+        if (type == ChangeType.CREATE || refreshContract(contract, currentContractFilter())) {
+            updateContractList();
+        }
+        eventBus.post(new DataChangedEvent(Contract.class, contract, type));
+    }
+
+    // ClientForm сохраняет клиента сам, поэтому вид изменения передает вызывающий диалог
+    private void saveClient(Client client, ChangeType type) {
+        clientRepository.save(client);
+        ListDelta.apply(clientGrid.getListDataView(), client, type, Client::getId);
+        if (type == ChangeType.UPDATE) {
+            updateContractList();
+        }
+        eventBus.post(new DataChangedEvent(Client.class, client, type));
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        broadcastRegistration = uiBroadcaster.register(attachEvent.getUI(), this::applyChanges);
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        broadcastRegistration.remove();
+        super.onDetach(detachEvent);
+    }
+
+    // Вызывается внутри UI.access для пачки событий, накопленных за окно коалесцирования
+    private void applyChanges(List<DataChangedEvent> events) {
+        try {
+            List<DataChangedEvent> contractEvents = events.stream()
+                    .filter(e -> e.getEntityType() == Contract.class)
+                    .toList();
+            List<DataChangedEvent> clientEvents = events.stream()
+                    .filter(e -> e.getEntityType() == Client.class)
+                    .toList();
+
+            // В гриде договоров видны имена клиентов, сотрудников и точек
+            boolean reloadContracts = events.stream().anyMatch(e -> e.getEntityType() != Contract.class
+                    && e.getChangeType() != ChangeType.CREATE)
+                    || contractEvents.size() > ListDelta.MAX_EVENTS
+                    || contractEvents.stream().anyMatch(e -> ListDelta.lacksPayload(e) || e.getChangeType() != ChangeType.UPDATE);
+
+            if (reloadContracts) {
+                updateContractList();
+            } else {
+                // Договоры пачки перечитываются одним запросом, список - не больше одного раза за пачку
+                Set<Long> ids = contractEvents.stream()
+                        .map(e -> ((Contract) e.getEntity()).getId())
+                        .collect(Collectors.toSet());
+                List<Contract> fresh = contractRepository.findWithDetailsByIdIn(ids);
+                ContractFilter filter = currentContractFilter();
+                boolean reload = fresh.size() < ids.size();
+                for (Contract contract : fresh) {
+                    reload |= refreshContract(contract, filter);
+                }
+                if (reload) updateContractList();
+            }
+
+            if (!contractEvents.isEmpty() || !clientEvents.isEmpty()) {
+                contractCounts.clear();
+            }
+            List<DataChangedEvent> pointEvents = events.stream()
+                    .filter(e -> e.getEntityType() == Point.class)
+                    .toList();
+            if (!pointEvents.isEmpty() && !ListDelta.applyAll(pointFilter.getListDataView(), pointEvents,
+                    Point.class, Point::getId, pointRepository::findById)) {
+                pointFilter.setItems(pointRepository.findAll());
+            }
+            List<DataChangedEvent> employeeEvents = events.stream()
+                    .filter(e -> e.getEntityType() == Employee.class)
+                    .toList();
+            if (!employeeEvents.isEmpty() && !ListDelta.applyAll(employeeFilter.getListDataView(), employeeEvents,
+                    Employee.class, Employee::getId, employeeRepository::findById)) {
+                employeeFilter.setItems(employeeRepository.findAll());
+            }
+            if (!clientEvents.isEmpty()) {
+                clientFilterCache.invalidate();
+            }
+            if (!clientEvents.isEmpty() && (!clientFilter.isEmpty() || !ListDelta.applyAll(clientGrid.getListDataView(),
+                    clientEvents, Client.class, Client::getId, clientRepository::findById))) {
+                updateClientList();
+            }
+        } catch (Exception e) {
+            logger.error("Error applying data changes", e);
+        }
+    }
+
     private void updateLists() {
         updateContractList();
         updateClientList();
     }
 
+    /**
+     * Обновляет строку измененного договора. Загруженная в грид строка прошла фильтр до изменения:
+     * если договор по-прежнему ему соответствует, достаточно обновить строку. Незагруженные строки
+     * подтянутся из базы при прокрутке.
+     *
+     * @return true, если договор вышел из выборки и список нужно перечитать
+     */
+    private boolean refreshContract(Contract contract, ContractFilter filter) {
+        if (!contractGrid.getDataCommunicator().getKeyMapper().has(contract)) return false;
+        if (!filter.matches(contract)) return true;
+        contractGrid.getDataProvider().refreshItem(contract);
+        return false;
+    }
+
     private void updateContractList() {
+        contractCounts.clear();
+        contractGrid.getDataProvider().refreshAll();
+    }
+
+    private Stream<Contract> fetchContracts(Query<Contract, Void> query) {
         try {
-            if (contractFilter.getValue().isEmpty()) {
-                contractGrid.setItems(contractRepository.findAll());
-            } else {
-                contractGrid.setItems(contractRepository.findByClientFullNameContainingIgnoreCase(contractFilter.getValue()));
+            PageRequest pageRequest = toSpringPageRequest(query);
+            // id в конце сортировки делает порядок стабильным между страницами
+            Pageable pageable = pageRequest.withSort(pageRequest.getSort().and(Sort.by("id")));
+            ContractFilter filter = currentContractFilter();
+            if (filter.isEmpty()) {
+                return contractRepository.findAllBy(pageable).stream();
             }
+            // Все условия и подгрузка связей - в одном SQL-запросе страницы
+            return contractRepository.findAllWithDetails(filter.toSpecification(), pageable).stream();
         } catch (Exception e) {
             Notification.show("Ошибка загрузки договоров", 3000, Notification.Position.BOTTOM_END);
             logger.error("Error loading contracts", e);
+            return Stream.empty();
+        }
+    }
+
+    private long countContracts() {
+        try {
+            ContractFilter filter = currentContractFilter();
+            if (filter.isEmpty()) {
+                return contractRepository.count();
+            }
+            return contractCounts.computeIfAbsent(filter, f -> contractRepository.count(f.toSpecification()));
+        } catch (Exception e) {
+            logger.error("Error counting contracts", e);
+            return 0;
         }
     }
 
@@ -391,7 +772,7 @@ public class ClientContractView extends VerticalLayout {
             if (clientFilter.getValue().isEmpty()) {
                 clientGrid.setItems(clientRepository.findAll());
             } else {
-                clientGrid.setItems(clientRepository.findByFullNameContainingIgnoreCase(clientFilter.getValue()));
+                clientGrid.setItems(clientFilterCache.get(clientFilter.getValue()));
             }
         } catch (Exception e) {
             Notification.show("Ошибка загрузки клиентов", 3000, Notification.Position.BOTTOM_END);
@@ -399,6 +780,16 @@ public class ClientContractView extends VerticalLayout {
         }
     }
 
+    // Результат индекса уточняется в памяти при удлинении текста, результат запроса LIKE - нет:
+    // в нем нет совпадений в другой раскладке алфавита, которые нашел бы индекс
+    private FilterResultCache.Result<Client> loadClients(String filter) {
+        return clientNameIndex.search(filter)
+                .map(ids -> FilterResultCache.Result.narrowable(
+                        clientRepository.findByIdIn(ids, Pageable.unpaged(Sort.by("fullName", "id")))))
+                .orElseGet(() -> FilterResultCache.Result.exactOnly(
+                        clientRepository.findByFullNameContainingIgnoreCase(filter)));
+    }
+
     private void addContract() {
         Dialog dialog = new Dialog();
         dialog.setWidth("800px");
@@ -408,14 +799,11 @@ public class ClientContractView extends VerticalLayout {
         Contract newContract = new Contract();
         newContract.setAmount(BigDecimal.ZERO);
         newContract.setTerm(LocalDate.now().plusMonths(1));
-        newContract.setStatus("Активен");
+        newContract.setStatus(ContractStatus.ACTIVE);
 
         contractForm.setContract(newContract);
         contractForm.setParentDialog(dialog);
-        contractForm.setSaveHandler(() -> {
-            contractRepository.save(contractForm.getContract());
-            updateContractList();
-        });
+        contractForm.setSaveHandler(() -> saveContract(contractForm.getContract()));
 
         VerticalLayout dialogLayout = new VerticalLayout();
         dialogLayout.add(contractForm);
@@ -437,10 +825,7 @@ public class ClientContractView extends VerticalLayout {
 
         contractForm.setContract(contract);
         contractForm.setParentDialog(dialog);
-        contractForm.setSaveHandler(() -> {
-            contractRepository.save(contractForm.getContract());
-            updateContractList();
-        });
+        contractForm.setSaveHandler(() -> saveContract(contractForm.getContract()));
 
         VerticalLayout dialogLayout = new VerticalLayout();
         dialogLayout.add(contractForm);
@@ -480,8 +865,9 @@ public class ClientContractView extends VerticalLayout {
 
     private void deleteContract(Contract contract) {
         try {
-            contractRepository.delete(contract);
+            contractService.delete(contract);
             updateContractList();
+            eventBus.post(new DataChangedEvent(Contract.class, contract, ChangeType.DELETE));
             Notification.show("Договор удален", 3000, Notification.Position.BOTTOM_END);
             logger.info("Contract deleted: {}", contract.getId());
         } catch (Exception e) {
@@ -499,10 +885,7 @@ public class ClientContractView extends VerticalLayout {
 
         clientForm.setClient(new Client());
         clientForm.setParentDialog(dialog);
-        clientForm.setSaveHandler(() -> {
-            clientRepository.save(clientForm.getClient());
-            updateClientList();
-        });
+        clientForm.setSaveHandler(() -> saveClient(clientForm.getClient(), ChangeType.CREATE));
 
         VerticalLayout dialogLayout = new VerticalLayout();
         dialogLayout.add(clientForm);
@@ -524,10 +907,7 @@ public class ClientContractView extends VerticalLayout {
 
         clientForm.setClient(client);
         clientForm.setParentDialog(dialog);
-        clientForm.setSaveHandler(() -> {
-            clientRepository.save(clientForm.getClient());
-            updateClientList();
-        });
+        clientForm.setSaveHandler(() -> saveClient(clientForm.getClient(), ChangeType.UPDATE));
 
         VerticalLayout dialogLayout = new VerticalLayout();
         dialogLayout.add(clientForm);
@@ -568,7 +948,8 @@ public class ClientContractView extends VerticalLayout {
     private void deleteClient(Client client) {
         try {
             clientRepository.delete(client);
-            updateClientList();
+            ListDelta.apply(clientGrid.getListDataView(), client, ChangeType.DELETE, Client::getId);
+            eventBus.post(new DataChangedEvent(Client.class, client, ChangeType.DELETE));
             Notification.show("Клиент удален", 3000, Notification.Position.BOTTOM_END);
             logger.info("Client deleted: {}", client.getId());
         } catch (Exception e) {
@@ -0,0 +1,61 @@
+package ru.sbt.task.views;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import ru.sbt.task.service.DataChangedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Собирает события, пришедшие за короткое окно, и применяет их к UI одним вызовом {@link UI#access}.
+ */
+public class DataChangeCoalescer {
+
+    public static final long DEFAULT_WINDOW_MILLIS = 200;
+
+    private final Executor access;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<List<DataChangedEvent>> handler;
+    private final List<DataChangedEvent> pending = new ArrayList<>();
+    private boolean scheduled;
+
+    /**
+     * @param access выполняет пачку под блокировкой сессии UI, обычно {@code ui::access}
+     */
+    public DataChangeCoalescer(Executor access, long windowMillis, ScheduledExecutorService scheduler,
+                               Consumer<List<DataChangedEvent>> handler) {
+        this.access = access;
+        this.windowMillis = windowMillis;
+        this.scheduler = scheduler;
+        this.handler = handler;
+    }
+
+    public void submit(DataChangedEvent event) {
+        synchronized (pending) {
+            pending.add(event);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        List<DataChangedEvent> batch;
+        synchronized (pending) {
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            scheduled = false;
+        }
+        try {
+            access.execute(() -> handler.accept(batch));
+        } catch (UIDetachedException e) {
+            // UI закрыт, обновлять нечего
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ru.sbt.task.views;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Последние результаты фильтра одного грида, ключ - нормализованный текст фильтра.
+ * <p>
+ * Если текст удлинился и содержит ранее запрошенный, результат отбирается в памяти из
+ * сохраненного надмножества без запроса в базу. Кэш принадлежит одному UI и вызывается
+ * только под его блокировкой; сбрасывается владельцем по {@link ru.sbt.task.service.DataChangedEvent}.
+ * Наружу отдаются копии списков: грид меняет переданную ему коллекцию при точечных изменениях.
+ */
+public class FilterResultCache<T> {
+
+    // Десяток-другой недавних текстов покрывает набор, стирание и повторный набор
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int DEFAULT_MAX_ITEMS = 2000;
+
+    /**
+     * Результат загрузки. Ненаращиваемый результат отдается только по точному совпадению текста,
+     * например если загрузчик искал не по вхождению подстроки.
+     */
+    public record Result<T>(List<T> items, boolean narrowable) {
+
+        public static <T> Result<T> narrowable(List<T> items) {
+            return new Result<>(items, true);
+        }
+
+        public static <T> Result<T> exactOnly(List<T> items) {
+            return new Result<>(items, false);
+        }
+    }
+
+    private final int maxItems;
+    private final BiPredicate<T, String> matcher;
+    private final Function<String, Result<T>> loader;
+    private final Map<String, Result<T>> entries;
+
+    public FilterResultCache(BiPredicate<T, String> matcher, Function<String, Result<T>> loader) {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_ITEMS, matcher, loader);
+    }
+
+    /**
+     * @param capacity число хранимых текстов фильтра
+     * @param maxItems результаты больше этого размера не сохраняются
+     * @param matcher  проверка, что элемент подходит под нормализованный текст фильтра
+     * @param loader   загрузка по нормализованному тексту фильтра
+     */
+    public FilterResultCache(int capacity, int maxItems, BiPredicate<T, String> matcher,
+                             Function<String, Result<T>> loader) {
+        this.maxItems = maxItems;
+        this.matcher = matcher;
+        this.loader = loader;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Result<T>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Проверка вхождения текста фильтра в строковое свойство без учета регистра, как в запросах ContainingIgnoreCase.
+     */
+    public static <T> BiPredicate<T, String> containsIgnoreCase(Function<T, String> property) {
+        return (item, filter) -> {
+            String value = property.apply(item);
+            return value != null && value.toLowerCase(Locale.ROOT).contains(filter);
+        };
+    }
+
+    public static String normalize(String filter) {
+        return filter == null ? "" : filter.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public List<T> get(String filter) {
+        String key = normalize(filter);
+        Result<T> cached = entries.get(key);
+        if (cached == null) {
+            cached = narrow(key);
+        }
+        if (cached == null) {
+            cached = loader.apply(key);
+            store(key, cached);
+        }
+        return new ArrayList<>(cached.items());
+    }
+
+    public void invalidate() {
+        entries.clear();
+    }
+
+    // Самое узкое сохраненное надмножество: самый длинный ранее запрошенный текст, входящий в новый
+    private Result<T> narrow(String key) {
+        Map.Entry<String, Result<T>> best = null;
+        for (Map.Entry<String, Result<T>> entry : entries.entrySet()) {
+            if (entry.getValue().narrowable() && key.contains(entry.getKey())
+                    && (best == null || entry.getKey().length() > best.getKey().length())) {
+                best = entry;
+            }
+        }
+        if (best == null) return null;
+
+        List<T> items = new ArrayList<>();
+        for (T item : best.getValue().items()) {
+            if (matcher.test(item, key)) items.add(item);
+        }
+        // Пустой отбор проверяется загрузчиком: он может искать и неточные совпадения
+        if (items.isEmpty()) return null;
+        // Обращение к надмножеству продлевает его жизнь в LRU
+        entries.get(best.getKey());
+        Result<T> narrowed = Result.narrowable(items);
+        store(key, narrowed);
+        return narrowed;
+    }
+
+    private void store(String key, Result<T> result) {
+        if (result.items().size() <= maxItems) {
+            entries.put(key, result);
+        }
+    }
+}
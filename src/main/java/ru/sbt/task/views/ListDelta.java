@@ -0,0 +1,72 @@
+package ru.sbt.task.views;
+
+import com.vaadin.flow.data.provider.ListDataView;
+import ru.sbt.task.service.DataChangedEvent;
+import ru.sbt.task.service.DataChangedEvent.ChangeType;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Точечное применение изменений сущностей к спискам гридов и выпадающих списков.
+ * Элементы сравниваются по идентификатору, поэтому повторное применение того же изменения безопасно.
+ */
+public final class ListDelta {
+
+    // Больше изменений одного типа за раз дешевле перечитать целиком
+    public static final int MAX_EVENTS = 20;
+
+    private ListDelta() {
+    }
+
+    public static <T> void apply(ListDataView<T, ?> view, T item, ChangeType type, Function<T, ?> id) {
+        Object key = id.apply(item);
+        Optional<T> existing = view.getItems()
+                .filter(i -> Objects.equals(id.apply(i), key))
+                .findFirst();
+
+        if (type == ChangeType.DELETE) {
+            existing.ifPresent(view::removeItem);
+        } else if (existing.isEmpty()) {
+            if (type == ChangeType.CREATE) view.addItem(item);
+        } else if (existing.get() == item) {
+            view.refreshItem(item);
+        } else {
+            view.addItemAfter(item, existing.get());
+            view.removeItem(existing.get());
+        }
+    }
+
+    /**
+     * Применяет пачку событий одного типа. Новые и измененные сущности перечитываются по id,
+     * чтобы не делить экземпляры между сессиями.
+     *
+     * @return false, если точечно применить нельзя и список нужно перечитать целиком
+     */
+    public static <T> boolean applyAll(ListDataView<T, ?> view, List<DataChangedEvent> events, Class<T> type,
+                                Function<T, Long> id, Function<Long, Optional<T>> loader) {
+        if (events.size() > MAX_EVENTS || events.stream().anyMatch(ListDelta::lacksPayload)) {
+            return false;
+        }
+        for (DataChangedEvent event : events) {
+            T entity = type.cast(event.getEntity());
+            if (event.getChangeType() == ChangeType.DELETE) {
+                apply(view, entity, ChangeType.DELETE, id);
+            } else {
+                Optional<T> fresh = loader.apply(id.apply(entity));
+                if (fresh.isPresent()) {
+                    apply(view, fresh.get(), event.getChangeType(), id);
+                } else {
+                    apply(view, entity, ChangeType.DELETE, id);
+                }
+            }
+        }
+        return true;
+    }
+
+    public static boolean lacksPayload(DataChangedEvent event) {
+        return event.getEntity() == null || event.getChangeType() == null;
+    }
+}
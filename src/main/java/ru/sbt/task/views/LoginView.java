@@ -9,12 +9,19 @@ import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import ru.sbt.task.service.LoginService;
+import ru.sbt.task.service.LoginThrottledException;
+
+import java.util.concurrent.CompletionException;
 
 
 @Route("login")
@@ -22,11 +29,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 @AnonymousAllowed
 public class LoginView extends VerticalLayout implements BeforeEnterObserver {
 
-    private final AuthenticationManager authManager;
+    private final LoginService loginService;
     private final LoginForm loginForm = new LoginForm();
 
-    public LoginView(AuthenticationManager authManager) {
-        this.authManager = authManager;
+    public LoginView(LoginService loginService) {
+        this.loginService = loginService;
         initView();
     }
 
@@ -55,25 +62,41 @@ public class LoginView extends VerticalLayout implements BeforeEnterObserver {
         add(loginForm);
     }
 
+    // Пароль проверяется в пуле LoginService, результат возвращается в UI через push
     private void authenticate(LoginForm.LoginEvent event) {
-        try {
-            Authentication auth = authManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            event.getUsername(),
-                            event.getPassword()
-                    )
-            );
-
-            SecurityContextHolder.getContext().setAuthentication(auth);
-            UI.getCurrent().navigate("contracts");
-
-        } catch (BadCredentialsException e) {
+        UI ui = UI.getCurrent();
+        VaadinSession session = VaadinSession.getCurrent();
+        String remoteAddress = VaadinRequest.getCurrent().getRemoteAddr();
+
+        loginService.authenticate(event.getUsername(), event.getPassword(), remoteAddress)
+                .whenComplete((auth, error) -> ui.access(() -> {
+                    if (error == null) {
+                        onAuthenticated(ui, session, auth);
+                    } else {
+                        onFailure(error instanceof CompletionException ? error.getCause() : error);
+                    }
+                }));
+    }
+
+    // Запроса в этом потоке нет, поэтому контекст безопасности кладется в HTTP-сессию явно,
+    // а страница перезагружается, чтобы следующий запрос прочитал его оттуда
+    private void onAuthenticated(UI ui, VaadinSession session, Authentication auth) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(auth);
+        session.getSession().setAttribute(
+                HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+        ui.getPage().setLocation("contracts");
+    }
+
+    private void onFailure(Throwable error) {
+        if (error instanceof LoginThrottledException) {
+            showError(error.getMessage());
+        } else if (error instanceof BadCredentialsException) {
             showError("Неверный логин или пароль");
-            loginForm.setEnabled(true);
-        } catch (AuthenticationException e) {
+        } else {
             showError("Ошибка аутентификации");
-            loginForm.setEnabled(true);
         }
+        loginForm.setEnabled(true);
     }
 
     private void showError(String message) {
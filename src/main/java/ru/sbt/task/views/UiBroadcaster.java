@@ -0,0 +1,112 @@
+package ru.sbt.task.views;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.sbt.task.service.DataChangedEvent;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Рассылка {@link DataChangedEvent} всем открытым UI.
+ * <p>
+ * На шину подписан только сам рассыльщик, поэтому число открытых вкладок не размножает задачи
+ * пула доставки. Каждая регистрация копит события в своем {@link DataChangeCoalescer} и применяет
+ * их через {@code UI.access}; изменения доходят до браузера через server push.
+ */
+@Component
+public class UiBroadcaster {
+
+    private final EventBus eventBus;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Set<DataChangeCoalescer> registrations = ConcurrentHashMap.newKeySet();
+
+    public UiBroadcaster(EventBus eventBus,
+                         @Value("${app.ui.broadcast-threads:2}") int threads,
+                         @Value("${app.ui.broadcast-window-millis:" + DataChangeCoalescer.DEFAULT_WINDOW_MILLIS + "}") long windowMillis) {
+        this.eventBus = eventBus;
+        this.windowMillis = windowMillis;
+        this.scheduler = Executors.newScheduledThreadPool(threads, r -> {
+            Thread t = new Thread(r, "ui-broadcaster");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        eventBus.register(this);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        eventBus.unregister(this);
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Подписывает UI на изменения. Регистрация снимается при удалении или при отсоединении UI.
+     */
+    public Registration register(UI ui, Consumer<List<DataChangedEvent>> handler) {
+        Registration registration = register(command -> ui.access(command::run), handler);
+        Registration detach = ui.addDetachListener(e -> registration.remove());
+        return () -> {
+            detach.remove();
+            registration.remove();
+        };
+    }
+
+    Registration register(Executor access, Consumer<List<DataChangedEvent>> handler) {
+        DataChangeCoalescer coalescer = new DataChangeCoalescer(access, windowMillis, scheduler, handler);
+        registrations.add(coalescer);
+        return () -> registrations.remove(coalescer);
+    }
+
+    /**
+     * Периодически выполняет {@code task} внутри {@code UI.access}; изменения доходят до браузера через push.
+     * Опрос прекращается, когда задача вернет false, при снятии регистрации или отсоединении UI.
+     */
+    public Registration poll(UI ui, long periodMillis, BooleanSupplier task) {
+        AtomicReference<ScheduledFuture<?>> future = new AtomicReference<>();
+        future.set(scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                ui.access(() -> {
+                    if (!task.getAsBoolean()) future.get().cancel(false);
+                });
+            } catch (UIDetachedException e) {
+                future.get().cancel(false);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS));
+        Registration detach = ui.addDetachListener(e -> future.get().cancel(false));
+        return () -> {
+            detach.remove();
+            future.get().cancel(false);
+        };
+    }
+
+    @Subscribe
+    public void onDataChanged(DataChangedEvent event) {
+        registrations.forEach(coalescer -> coalescer.submit(event));
+    }
+
+    public int getRegistrationCount() {
+        return registrations.size();
+    }
+}
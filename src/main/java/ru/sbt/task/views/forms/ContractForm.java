@@ -1,7 +1,6 @@
 package ru.sbt.task.views.forms;
 
 import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.Subscribe;
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.button.Button;
@@ -20,14 +19,18 @@ import com.vaadin.flow.data.converter.StringToBigDecimalConverter;
 import java.math.BigDecimal;
 
 import com.vaadin.flow.data.provider.ListDataView;
+import com.vaadin.flow.shared.Registration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import ru.sbt.task.model.entity.Client;
 import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.ContractStatus;
 import ru.sbt.task.model.entity.Employee;
 import ru.sbt.task.model.entity.Point;
 import ru.sbt.task.model.repository.ClientRepository;
@@ -39,8 +42,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+import ru.sbt.task.service.ClientNameIndex;
 import ru.sbt.task.service.DataChangedEvent;
 import ru.sbt.task.service.SecurityService;
+import ru.sbt.task.views.ListDelta;
+import ru.sbt.task.views.UiBroadcaster;
+
+import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRequest;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -54,7 +62,7 @@ public class ContractForm extends FormLayout {
     private final DatePicker term = new DatePicker("Срок до");
     private final ComboBox<Employee> employeeCombo = new ComboBox<>("Сотрудник");
     private final ComboBox<Point> pointCombo = new ComboBox<>("Точка выдачи");
-    private final ComboBox<String> statusCombo = new ComboBox<>("Статус");
+    private final ComboBox<ContractStatus> statusCombo = new ComboBox<>("Статус");
     private final Button save = new Button("Сохранить");
     private final Button cancel = new Button("Отмена");
 
@@ -70,7 +78,10 @@ public class ContractForm extends FormLayout {
     private final PointRepository pointRepository;
     private final ClientForm clientForm;
     private final SecurityService securityService;
+    private final ClientNameIndex clientNameIndex;
     private final EventBus eventBus;
+    private final UiBroadcaster uiBroadcaster;
+    private Registration broadcastRegistration;
 
     @Autowired
     public ContractForm(ClientRepository clientRepository,
@@ -78,27 +89,52 @@ public class ContractForm extends FormLayout {
                         PointRepository pointRepository,
                         ClientForm clientForm,
                         SecurityService securityService,
-                        EventBus eventBus) {
+                        ClientNameIndex clientNameIndex,
+                        EventBus eventBus,
+                        UiBroadcaster uiBroadcaster) {
         this.clientRepository = clientRepository;
         this.employeeRepository = employeeRepository;
         this.pointRepository = pointRepository;
         this.clientForm = clientForm;
         this.securityService = securityService;
+        this.clientNameIndex = clientNameIndex;
         this.eventBus = eventBus;
+        this.uiBroadcaster = uiBroadcaster;
 
         configureForm();
+        configureClientCombo();
         refreshComboBoxes();
     }
 
     @Override
     protected void onAttach(AttachEvent attachEvent) {
-        eventBus.register(this);
+        broadcastRegistration = uiBroadcaster.register(attachEvent.getUI(), this::applyChanges);
         setCurrentEmployee();
     }
 
     @Override
     protected void onDetach(DetachEvent detachEvent) {
-        eventBus.unregister(this);
+        broadcastRegistration.remove();
+    }
+
+    private void applyChanges(List<DataChangedEvent> events) {
+        if (events.stream().anyMatch(e -> e.getEntityType() == Client.class)) {
+            refreshClients();
+        }
+        List<DataChangedEvent> employeeEvents = ofType(events, Employee.class);
+        if (!employeeEvents.isEmpty() && !ListDelta.applyAll(employeeCombo.getListDataView(), employeeEvents,
+                Employee.class, Employee::getId, employeeRepository::findWithProcurationById)) {
+            refreshEmployees();
+        }
+        List<DataChangedEvent> pointEvents = ofType(events, Point.class);
+        if (!pointEvents.isEmpty() && !ListDelta.applyAll(pointCombo.getListDataView(), pointEvents,
+                Point.class, Point::getId, pointRepository::findById)) {
+            refreshPoints();
+        }
+    }
+
+    private static List<DataChangedEvent> ofType(List<DataChangedEvent> events, Class<?> type) {
+        return events.stream().filter(e -> e.getEntityType() == type).toList();
     }
 
 
@@ -108,6 +144,7 @@ public class ContractForm extends FormLayout {
         clientCombo.setItemLabelGenerator(Client::getFullName);
         employeeCombo.setItemLabelGenerator(Employee::getFullName);
         pointCombo.setItemLabelGenerator(Point::getName);
+        statusCombo.setItemLabelGenerator(ContractStatus::getTitle);
 
         Button addClientBtn = new Button(VaadinIcon.PLUS.create());
         addClientBtn.addThemeVariants(ButtonVariant.LUMO_ICON, ButtonVariant.LUMO_TERTIARY);
@@ -120,8 +157,8 @@ public class ContractForm extends FormLayout {
         pointCombo.setWidthFull();
         statusCombo.setWidthFull();
 
-        statusCombo.setItems("Активен", "Закрыт");
-        statusCombo.setValue("Активен");
+        statusCombo.setItems(ContractStatus.values());
+        statusCombo.setValue(ContractStatus.ACTIVE);
         term.setValue(LocalDate.now().plusMonths(1));
 
         configureBinder();
@@ -170,6 +207,26 @@ public class ContractForm extends FormLayout {
                 .bind(Contract::getTerm, Contract::setTerm);
     }
 
+    // Клиентов может быть много: список грузится страницами по введенному тексту,
+    // избирательный текст ищется по индексу ФИО, остальной - в базе
+    private void configureClientCombo() {
+        clientCombo.setItems(
+                query -> {
+                    PageRequest pageRequest = toSpringPageRequest(query).withSort(Sort.by("fullName", "id"));
+                    String filter = query.getFilter().orElse("");
+                    return clientNameIndex.search(filter)
+                            .map(ids -> clientRepository.findByIdIn(ids, pageRequest))
+                            .orElseGet(() -> clientRepository.findByFullNameContainingIgnoreCase(filter, pageRequest))
+                            .stream();
+                },
+                query -> {
+                    String filter = query.getFilter().orElse("");
+                    return clientNameIndex.search(filter)
+                            .map(List::size)
+                            .orElseGet(() -> (int) clientRepository.countByFullNameContainingIgnoreCase(filter));
+                });
+    }
+
     private void refreshComboBoxes() {
         refreshClients();
         refreshEmployees();
@@ -177,13 +234,7 @@ public class ContractForm extends FormLayout {
     }
 
     private void refreshClients() {
-        try {
-            List<Client> clients = clientRepository.findAll();
-            clientCombo.setItems(clients);
-            logger.info("Refreshed clients list: {} items", clients.size());
-        } catch (Exception e) {
-            logger.error("Error refreshing clients", e);
-        }
+        clientCombo.getDataProvider().refreshAll();
     }
 
     private void refreshEmployees() {
@@ -232,9 +283,9 @@ public class ContractForm extends FormLayout {
         clientForm.setParentDialog(dialog);
         clientForm.setSaveHandler(() -> {
             Client savedClient = clientRepository.save(clientForm.getClient());
-            List<Client> updatedClients = clientRepository.findAll();
-            clientCombo.setItems(updatedClients);
+            refreshClients();
             clientCombo.setValue(savedClient);
+            eventBus.post(new DataChangedEvent(Client.class, savedClient, DataChangedEvent.ChangeType.CREATE));
         });
 
         dialog.add(clientForm);
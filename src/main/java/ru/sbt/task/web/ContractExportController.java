@@ -0,0 +1,52 @@
+package ru.sbt.task.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import ru.sbt.task.service.ContractBulkExportService;
+import ru.sbt.task.service.ContractExportJob;
+
+import java.io.IOException;
+import java.security.Principal;
+
+/**
+ * Потоковая отдача ZIP-архива пакетной выгрузки договоров.
+ */
+@RestController
+public class ContractExportController {
+
+    private final ContractBulkExportService exportService;
+
+    public ContractExportController(ContractBulkExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    public static String zipUrl(ContractExportJob job) {
+        return "/api/exports/" + job.getId();
+    }
+
+    @GetMapping("/api/exports/{jobId}")
+    public void download(@PathVariable String jobId,
+                         Principal principal,
+                         HttpServletResponse response) throws IOException {
+        ContractExportJob job = exportService.getJob(jobId);
+        // Владелец проверяется до захвата, чтобы чужой запрос не расходовал задание
+        if (job == null || principal == null || !principal.getName().equals(job.getOwner()) || !job.tryStart()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(job.getFileName())
+                .build()
+                .toString());
+        exportService.writeZip(job, response.getOutputStream());
+    }
+}
@@ -0,0 +1,101 @@
+package ru.sbt.task.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.repository.ContractFilter;
+import ru.sbt.task.service.ContractListExportService;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Потоковая выгрузка списка договоров в CSV и XLSX. Ответ пишется по мере чтения строк из базы.
+ * Параметры запроса повторяют {@link ContractFilter} грида, кроме id клиентов: их подбирает сервис.
+ */
+@RestController
+public class ContractListExportController {
+
+    private static final String CSV_URL = "/api/contracts/export.csv";
+    private static final String XLSX_URL = "/api/contracts/export.xlsx";
+
+    private final ContractListExportService exportService;
+
+    public ContractListExportController(ContractListExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    public static String csvUrl(ContractFilter filter) {
+        return url(CSV_URL, filter);
+    }
+
+    public static String xlsxUrl(ContractFilter filter) {
+        return url(XLSX_URL, filter);
+    }
+
+    private static String url(String path, ContractFilter filter) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromPath(path);
+        param(builder, "client", filter.clientName());
+        param(builder, "status", filter.status());
+        param(builder, "point", filter.pointId());
+        param(builder, "employee", filter.employeeId());
+        param(builder, "amountFrom", filter.amountFrom() != null ? filter.amountFrom().toPlainString() : null);
+        param(builder, "amountTo", filter.amountTo() != null ? filter.amountTo().toPlainString() : null);
+        param(builder, "issueDateFrom", filter.issueDateFrom());
+        param(builder, "issueDateTo", filter.issueDateTo());
+        param(builder, "termFrom", filter.termFrom());
+        param(builder, "termTo", filter.termTo());
+        return builder.encode().toUriString();
+    }
+
+    private static void param(UriComponentsBuilder builder, String name, Object value) {
+        if (value != null && !value.toString().isBlank()) {
+            builder.queryParam(name, value);
+        }
+    }
+
+    /**
+     * Параметры фильтра из URL; связываются по именам компонентов.
+     */
+    public record FilterParams(String client, ContractStatus status, Long point, Long employee,
+                               BigDecimal amountFrom, BigDecimal amountTo,
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate issueDateFrom,
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate issueDateTo,
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate termFrom,
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate termTo) {
+
+        ContractFilter toFilter() {
+            String clientName = client != null && !client.isBlank() ? client.trim() : null;
+            return new ContractFilter(clientName, null, status, point, employee, amountFrom, amountTo,
+                    issueDateFrom, issueDateTo, termFrom, termTo);
+        }
+    }
+
+    @GetMapping(CSV_URL)
+    public void exportCsv(FilterParams params, HttpServletResponse response) throws IOException {
+        prepare(response, "text/csv;charset=UTF-8", "contracts.csv");
+        exportService.writeCsv(params.toFilter(), response.getOutputStream());
+    }
+
+    @GetMapping(XLSX_URL)
+    public void exportXlsx(FilterParams params, HttpServletResponse response) throws IOException {
+        prepare(response, "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "contracts.xlsx");
+        exportService.writeXlsx(params.toFilter(), response.getOutputStream());
+    }
+
+    private static void prepare(HttpServletResponse response, String contentType, String fileName) {
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileName)
+                .build()
+                .toString());
+    }
+}
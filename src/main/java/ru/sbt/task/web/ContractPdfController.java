@@ -0,0 +1,69 @@
+package ru.sbt.task.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.repository.ContractRepository;
+import ru.sbt.task.service.ContractPdfRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Отдает PDF договора обычным HTTP-ответом, минуя канал UIDL.
+ */
+@RestController
+public class ContractPdfController {
+
+    private final ContractRepository contractRepository;
+    private final ContractPdfRenderer pdfRenderer;
+
+    public ContractPdfController(ContractRepository contractRepository, ContractPdfRenderer pdfRenderer) {
+        this.contractRepository = contractRepository;
+        this.pdfRenderer = pdfRenderer;
+    }
+
+    public static String pdfUrl(Contract contract) {
+        return "/api/contracts/" + contract.getId() + "/pdf";
+    }
+
+    @GetMapping("/api/contracts/{id}/pdf")
+    public void download(@PathVariable Long id,
+                         ServletWebRequest webRequest,
+                         HttpServletResponse response) throws IOException {
+        Contract contract = contractRepository.findWithDetailsById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        // ETag по содержимому шаблона: повторная загрузка неизменного договора получает 304 без рендеринга
+        String etag = "\"" + DigestUtils.md5DigestAsHex(
+                pdfRenderer.describe(contract).getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return;
+        }
+
+        // PDFBox узнает размер файла только после записи xref, поэтому документ
+        // собирается в буфер на время запроса ради Content-Length
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(32 * 1024);
+        pdfRenderer.render(contract, buffer);
+
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setContentLength(buffer.size());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("contract_" + id + ".pdf")
+                .build()
+                .toString());
+        buffer.writeTo(response.getOutputStream());
+    }
+}
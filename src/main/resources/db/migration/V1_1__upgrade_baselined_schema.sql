@@ -0,0 +1,45 @@
+-- Доводит до V1 базы, принятые как V1 без выполнения (spring.flyway.baseline-on-migrate): их создавал
+-- ddl-auto=update с id на IDENTITY, без последовательностей, а до счетчиков и outbox - и без этих таблиц.
+-- Все шаги повторяемы, на новой базе ничего не меняют.
+
+alter table client alter column id drop identity;
+alter table contract alter column id drop identity;
+alter table employee alter column id drop identity;
+alter table point alter column id drop identity;
+alter table procuration alter column id drop identity;
+
+create table if not exists point_contract_counter (
+    id bigint generated by default as identity,
+    point_id bigint not null,
+    status varchar(255) not null,
+    contract_count bigint not null,
+    total_amount numeric(38, 2),
+    primary key (id),
+    constraint uk_point_contract_counter_point_status unique (point_id, status)
+);
+
+create table if not exists change_outbox (
+    id bigint generated by default as identity,
+    node_id varchar(255) not null,
+    entity_type varchar(255) not null,
+    entity_id bigint,
+    change_type varchar(255),
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+-- Hibernate создавал последовательности с 1, а могло их и не быть. Последовательность сдвигается за max(id)
+-- с запасом на блок allocationSize = 50: Hibernate выдает id блоком до значения последовательности.
+-- На новой базе таблицы пусты, и последовательности остаются с 1.
+
+create sequence if not exists client_seq start with 1 increment by 50;
+create sequence if not exists contract_seq start with 1 increment by 50;
+create sequence if not exists employee_seq start with 1 increment by 50;
+create sequence if not exists point_seq start with 1 increment by 50;
+create sequence if not exists procuration_seq start with 1 increment by 50;
+
+alter sequence client_seq restart with (select coalesce(max(id) + 51, 1) from client);
+alter sequence contract_seq restart with (select coalesce(max(id) + 51, 1) from contract);
+alter sequence employee_seq restart with (select coalesce(max(id) + 51, 1) from employee);
+alter sequence point_seq restart with (select coalesce(max(id) + 51, 1) from point);
+alter sequence procuration_seq restart with (select coalesce(max(id) + 51, 1) from procuration);
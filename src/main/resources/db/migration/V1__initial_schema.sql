@@ -0,0 +1,75 @@
+-- Схема в том виде, в каком ее создавал ddl-auto=update. Существующие базы
+-- принимают эту версию как базовую (spring.flyway.baseline-on-migrate) и доводятся до нее в V1_1.
+
+create sequence client_seq start with 1 increment by 50;
+create sequence contract_seq start with 1 increment by 50;
+create sequence employee_seq start with 1 increment by 50;
+create sequence point_seq start with 1 increment by 50;
+create sequence procuration_seq start with 1 increment by 50;
+
+create table client (
+    id bigint not null,
+    full_name varchar(255),
+    phone varchar(255),
+    primary key (id)
+);
+
+create table point (
+    id bigint not null,
+    address varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table procuration (
+    id bigint not null,
+    date date,
+    number varchar(255),
+    primary key (id)
+);
+
+create table employee (
+    id bigint not null,
+    full_name varchar(255),
+    login varchar(255),
+    password varchar(255),
+    role varchar(255),
+    procuration_id bigint,
+    primary key (id),
+    constraint fk_employee_procuration foreign key (procuration_id) references procuration (id)
+);
+
+create table contract (
+    id bigint not null,
+    amount numeric(38, 2),
+    issue_date date,
+    status varchar(255),
+    term date,
+    client_id bigint,
+    employee_id bigint,
+    point_id bigint,
+    primary key (id),
+    constraint fk_contract_client foreign key (client_id) references client (id),
+    constraint fk_contract_employee foreign key (employee_id) references employee (id),
+    constraint fk_contract_point foreign key (point_id) references point (id)
+);
+
+create table point_contract_counter (
+    id bigint generated by default as identity,
+    point_id bigint not null,
+    status varchar(255) not null,
+    contract_count bigint not null,
+    total_amount numeric(38, 2),
+    primary key (id),
+    constraint uk_point_contract_counter_point_status unique (point_id, status)
+);
+
+create table change_outbox (
+    id bigint generated by default as identity,
+    node_id varchar(255) not null,
+    entity_type varchar(255) not null,
+    entity_id bigint,
+    change_type varchar(255),
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
@@ -0,0 +1,16 @@
+-- Индексы под запросы репозиториев; планы проверяет QueryPlanTest
+
+-- ContractRepository.findByPointAndStatus, findByPoint, findIdsByPointId, summarizeByPointAndStatus
+create index idx_contract_point_status on contract (point_id, status);
+-- Соединение договоров с клиентом и сотрудником; фильтр договоров по имени клиента
+create index idx_contract_client on contract (client_id);
+create index idx_contract_employee on contract (employee_id);
+
+-- EmployeeRepository.findByLogin: логин однозначно определяет сотрудника
+alter table employee add constraint uq_employee_login unique (login);
+
+-- ClientRepository.findByPhoneIn при импорте
+create index idx_client_phone on client (phone);
+
+-- ChangeOutboxRepository.deleteOlderThan
+create index idx_change_outbox_created_at on change_outbox (created_at);
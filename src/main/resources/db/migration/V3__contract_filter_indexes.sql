@@ -0,0 +1,12 @@
+-- Индексы под составной фильтр списка договоров (ContractFilter); планы проверяет QueryPlanTest
+
+-- Статус с диапазоном дат выдачи или срока: равенство в начале индекса, диапазон за ним
+create index idx_contract_status_issue_date on contract (status, issue_date);
+create index idx_contract_status_term on contract (status, term);
+
+-- Сотрудник со статусом; индекс по одному employee_id для внешнего ключа им покрывается
+create index idx_contract_employee_status on contract (employee_id, status);
+drop index idx_contract_employee;
+
+-- Точку со статусом покрывает idx_contract_point_status, клиентов - idx_contract_client.
+-- Сумма отдельного индекса не получает: она проверяется по строкам, уже отобранным остальными условиями
@@ -0,0 +1,12 @@
+-- Статус договора хранится кодом ContractStatus вместо названия.
+-- 'Неактивен' в приложении никогда не выставлялся; если такие строки есть, они считаются закрытыми
+
+update contract set status = case status when 'Активен' then 'A' else 'C' end where status is not null;
+alter table contract alter column status set data type char(1);
+
+-- Счетчики пересчитываются по договорам при старте (ContractCounterService.rebuild)
+delete from point_contract_counter;
+alter table point_contract_counter alter column status set data type char(1);
+
+-- Грид по умолчанию показывает только активные договоры в порядке id
+create index idx_contract_status on contract (status, id);
@@ -0,0 +1,77 @@
+package ru.sbt.task.model.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.sbt.task.TaskApplication;
+import ru.sbt.task.model.entity.Client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * База в том виде, в каком ее оставлял ddl-auto=update до миграций: id на IDENTITY, без последовательностей,
+ * счетчиков и outbox. Приложение принимает ее как V1, доводит миграциями и проходит ddl-auto=validate.
+ */
+class BaselineMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void legacyDatabaseIsMigratedAndNewIdsFollowExistingRows() {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        createLegacySchema(jdbc);
+
+        // Значения перекрывают application.properties только как аргументы командной строки
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskApplication.class).run(
+                "--spring.datasource.url=" + URL,
+                "--server.port=0",
+                "--vaadin.launch-browser=false",
+                "--spring.jpa.show-sql=false",
+                "--app.cluster.transport=none")) {
+
+            Client client = new Client();
+            client.setFullName("Новый Клиент");
+            client.setPhone("+79000000000");
+            client = context.getBean(ClientRepository.class).save(client);
+            assertTrue(client.getId() > 120, "id " + client.getId() + " collides with existing rows");
+
+            // Администратор создается при старте и получает id из последовательности сотрудников
+            Long adminId = jdbc.queryForObject("select id from employee where login = 'admin'", Long.class);
+            assertTrue(adminId > 5, "admin id " + adminId);
+
+            assertEquals(0, jdbc.queryForObject("select count(*) from information_schema.columns " +
+                    "where table_schema = 'PUBLIC' and is_identity = 'YES' " +
+                    "and table_name in ('CLIENT', 'CONTRACT', 'EMPLOYEE', 'POINT', 'PROCURATION')", Integer.class));
+            assertEquals("A", jdbc.queryForObject("select status from contract where id = 7", String.class));
+            assertEquals(1, jdbc.queryForObject("select contract_count from point_contract_counter " +
+                    "where point_id = 3 and status = 'A'", Long.class));
+        }
+    }
+
+    private static void createLegacySchema(JdbcTemplate jdbc) {
+        jdbc.execute("create table client (id bigint generated by default as identity, full_name varchar(255), " +
+                "phone varchar(255), primary key (id))");
+        jdbc.execute("create table point (id bigint generated by default as identity, address varchar(255), " +
+                "name varchar(255), primary key (id))");
+        jdbc.execute("create table procuration (id bigint generated by default as identity, date date, " +
+                "number varchar(255), primary key (id))");
+        jdbc.execute("create table employee (id bigint generated by default as identity, full_name varchar(255), " +
+                "login varchar(255), password varchar(255), role varchar(255), procuration_id bigint, " +
+                "primary key (id), foreign key (procuration_id) references procuration (id))");
+        jdbc.execute("create table contract (id bigint generated by default as identity, amount numeric(38, 2), " +
+                "issue_date date, status varchar(255), term date, client_id bigint, employee_id bigint, " +
+                "point_id bigint, primary key (id), foreign key (client_id) references client (id), " +
+                "foreign key (employee_id) references employee (id), foreign key (point_id) references point (id))");
+
+        jdbc.update("insert into client (id, full_name, phone) values (120, 'Иванов Иван', '+79000000001')");
+        jdbc.update("insert into point (id, address, name) values (3, 'ул. Ленина, 1', 'Центральная')");
+        jdbc.update("insert into procuration (id, date, number) values (4, date '2024-01-01', 'Д-4')");
+        jdbc.update("insert into employee (id, full_name, login, password, role, procuration_id) " +
+                "values (5, 'Петров Петр', 'petrov', 'x', 'USER', 4)");
+        jdbc.update("insert into contract (id, amount, issue_date, status, term, client_id, employee_id, point_id) " +
+                "values (7, 1000.00, date '2024-01-01', 'Активен', date '2030-01-01', 120, 5, 3)");
+    }
+}
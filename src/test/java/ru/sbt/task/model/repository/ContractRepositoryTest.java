@@ -0,0 +1,180 @@
+package ru.sbt.task.model.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import ru.sbt.task.model.entity.Client;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.entity.Employee;
+import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.model.entity.Procuration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.sbt.task.model.repository.ContractRepositoryTest$RecordingStatementInspector"
+})
+@Transactional
+class ContractRepositoryTest {
+
+    @Autowired
+    private ContractRepository contractRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void gridPageLoadsAssociationsInOneStatement(int contracts) {
+        seed(contracts);
+
+        statistics.clear();
+        List<Contract> page = contractRepository.findAllBy(PageRequest.of(0, contracts, Sort.by("id")));
+        page.forEach(ContractRepositoryTest::touchAssociations);
+
+        assertEquals(contracts, page.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void filteredPageLoadsAssociationsInOneStatement(int contracts) {
+        seed(contracts);
+
+        statistics.clear();
+        List<Contract> page = contractRepository.findByClientFullNameContainingIgnoreCase(
+                "клиент", PageRequest.of(0, contracts, Sort.by("client.fullName")));
+        page.forEach(ContractRepositoryTest::touchAssociations);
+
+        assertEquals(contracts, page.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void compositeFilterIsPushedDownToOneStatement() {
+        seed(50);
+        ContractFilter filter = new ContractFilter("клиент", null, ContractStatus.ACTIVE, null, null,
+                BigDecimal.valueOf(1010), BigDecimal.valueOf(1040),
+                LocalDate.now().minusDays(1), LocalDate.now(), null, LocalDate.now().plusMonths(2));
+
+        statistics.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+        List<Contract> page = contractRepository.findAllWithDetails(filter.toSpecification(),
+                PageRequest.of(0, 20, Sort.by("amount", "id")));
+        page.forEach(ContractRepositoryTest::touchAssociations);
+
+        assertEquals(20, page.size());
+        assertEquals(0, BigDecimal.valueOf(1010).compareTo(page.get(0).getAmount()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // Все условия, подгрузка связей и страница - в тексте одного запроса, без count
+        String sql = RecordingStatementInspector.STATEMENTS.get(0).toLowerCase();
+        for (String fragment : List.of(".status=?", ".amount>=?", ".amount<=?", ".issue_date>=?", ".issue_date<=?",
+                ".term<=?", "like ? escape", "join employee", "join point", "fetch first ?")) {
+            assertTrue(sql.contains(fragment), fragment + " not in " + sql);
+        }
+        assertEquals(1, sql.split("join client ").length - 1, "client joined more than once: " + sql);
+        assertFalse(sql.contains("count("), sql);
+
+        assertEquals(31, contractRepository.count(filter.toSpecification()));
+    }
+
+    @Test
+    void filterByPointAndEmployeeId() {
+        seed(5);
+        Contract sample = contractRepository.findAllBy(PageRequest.of(0, 5, Sort.by("id"))).get(3);
+
+        ContractFilter filter = new ContractFilter(null, null, null, sample.getPoint().getId(),
+                sample.getEmployee().getId(), null, null, null, null, null, null);
+        List<Contract> found = contractRepository.findAllWithDetails(filter.toSpecification(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(sample.getId()), found.stream().map(Contract::getId).toList());
+        assertEquals(0, contractRepository.count(new ContractFilter(null, List.of(), null, null, null,
+                null, null, null, null, null, null).toSpecification()));
+    }
+
+    private static void touchAssociations(Contract contract) {
+        contract.getClient().getFullName();
+        contract.getEmployee().getFullName();
+        contract.getPoint().getName();
+    }
+
+    // Каждый договор ссылается на собственные клиента, сотрудника и точку: худший случай для N+1
+    private void seed(int contracts) {
+        for (int i = 0; i < contracts; i++) {
+            Procuration procuration = new Procuration();
+            procuration.setNumber("Д-" + i);
+            procuration.setDate(LocalDate.now());
+            entityManager.persist(procuration);
+
+            Employee employee = new Employee();
+            employee.setFullName("Сотрудник " + i);
+            employee.setLogin("employee-test-" + i);
+            employee.setRole("USER");
+            employee.setProcuration(procuration);
+            entityManager.persist(employee);
+
+            Client client = new Client();
+            client.setFullName("Клиент " + i);
+            client.setPhone("+7900000" + String.format("%04d", i));
+            entityManager.persist(client);
+
+            Point point = new Point();
+            point.setName("Точка " + i);
+            point.setAddress("Адрес " + i);
+            entityManager.persist(point);
+
+            Contract contract = new Contract();
+            contract.setClient(client);
+            contract.setEmployee(employee);
+            contract.setPoint(point);
+            contract.setAmount(BigDecimal.valueOf(1000 + i));
+            contract.setTerm(LocalDate.now().plusMonths(1));
+            contract.setIssueDate(LocalDate.now());
+            contract.setStatus(ContractStatus.ACTIVE);
+            entityManager.persist(contract);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package ru.sbt.task.model.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.service.SyntheticDataGenerator;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Планы H2 для запросов репозиториев на схеме из миграций Flyway.
+ * Метод репозитория вызывается по-настоящему, его SQL перехватывается и передается в {@code explain}
+ * с теми же значениями параметров в порядке их появления в тексте.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;DB_CLOSE_DELAY=-1",
+        "app.cluster.transport=none",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.sbt.task.model.repository.QueryPlanTest$RecordingStatementInspector"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final LocalDate ISSUED_FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate ISSUED_TO = LocalDate.of(2024, 1, 31);
+    private static final LocalDate TERM_FROM = LocalDate.of(2027, 1, 1);
+    private static final LocalDate TERM_TO = LocalDate.of(2027, 1, 31);
+    private static final int PAGE = 100;
+    private static final Instant OUTBOX_BEFORE = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SyntheticDataGenerator generator;
+    @Autowired
+    private ContractRepository contractRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private PointContractCounterRepository counterRepository;
+    @Autowired
+    private ChangeOutboxRepository outboxRepository;
+
+    @BeforeAll
+    void seed() {
+        // Распределение данных влияет на выбор плана, поэтому таблицы заполнены и проанализированы
+        generator.generate(new SyntheticDataGenerator.Settings(5000, 0, 50, 20, 42, 1000));
+        jdbcTemplate.execute("analyze");
+    }
+
+    // Фабрика аргументов не статическая: вызовы обращаются к внедренным репозиториям.
+    // Только по точке H2 выбирает более узкий индекс внешнего ключа, а не составной (point_id, status)
+    Stream<Arguments> queries() {
+        return Stream.of(
+                Arguments.of("ContractRepository.findByPointAndStatus",
+                        call(() -> contractRepository.findByPointAndStatus(point(1L), ContractStatus.ACTIVE)),
+                        List.of(1L, "A"), "CONTRACT", "IDX_CONTRACT_POINT_STATUS"),
+                Arguments.of("ContractRepository.findByPoint",
+                        call(() -> contractRepository.findByPoint(point(1L))),
+                        List.of(1L), "CONTRACT", "FK_CONTRACT_POINT_INDEX"),
+                Arguments.of("ContractRepository.findIdsAfter: bulk export page of a point",
+                        call(() -> contractRepository.findIdsAfter(new ContractFilter(null, null, null, 1L,
+                                null, null, null, null, null, null, null).toSpecification(), 100L, PAGE)),
+                        List.of(1L, 100L, PAGE), "CONTRACT", "FK_CONTRACT_POINT_INDEX"),
+                Arguments.of("ContractRepository.findWithDetailsById",
+                        call(() -> contractRepository.findWithDetailsById(1L)),
+                        List.of(1L), "CONTRACT", "PRIMARY_KEY"),
+                Arguments.of("ContractFilter: client ids from the name index",
+                        call(() -> contractRepository.findIdsAfter(
+                                ContractFilter.EMPTY.withClientIds(List.of(1L, 2L, 3L)).toSpecification(), null, PAGE)),
+                        List.of(1L, 2L, 3L, PAGE), "CONTRACT", "IDX_CONTRACT_CLIENT"),
+                Arguments.of("ContractFilter: status, issueDate",
+                        call(() -> contractRepository.findIdsAfter(new ContractFilter(null, null, ContractStatus.CLOSED,
+                                null, null, null, null, ISSUED_FROM, ISSUED_TO, null, null).toSpecification(), null, PAGE)),
+                        List.of("C", Date.valueOf(ISSUED_FROM), Date.valueOf(ISSUED_TO), PAGE),
+                        "CONTRACT", "IDX_CONTRACT_STATUS_ISSUE_DATE"),
+                Arguments.of("ContractFilter: status, term",
+                        call(() -> contractRepository.findIdsAfter(new ContractFilter(null, null, ContractStatus.ACTIVE,
+                                null, null, null, null, null, null, TERM_FROM, TERM_TO).toSpecification(), null, PAGE)),
+                        List.of("A", Date.valueOf(TERM_FROM), Date.valueOf(TERM_TO), PAGE),
+                        "CONTRACT", "IDX_CONTRACT_STATUS_TERM"),
+                Arguments.of("ContractFilter: employee, status",
+                        call(() -> contractRepository.findIdsAfter(new ContractFilter(null, null, ContractStatus.ACTIVE,
+                                null, 1L, null, null, null, null, null, null).toSpecification(), null, PAGE)),
+                        List.of("A", 1L, PAGE), "CONTRACT", "IDX_CONTRACT_EMPLOYEE_STATUS"),
+                Arguments.of("EmployeeRepository.findByLogin",
+                        call(() -> employeeRepository.findByLogin("user1")),
+                        List.of("user1"), "EMPLOYEE", "UQ_EMPLOYEE_LOGIN"),
+                Arguments.of("ClientRepository.findByPhoneIn",
+                        call(() -> clientRepository.findByPhoneIn(List.of("+79000000001", "+79000000002"))),
+                        List.of("+79000000001", "+79000000002"), "CLIENT", "IDX_CLIENT_PHONE"),
+                Arguments.of("PointContractCounterRepository.increment",
+                        call(() -> counterRepository.increment(1L, ContractStatus.ACTIVE, 1, BigDecimal.TEN)),
+                        List.of(1L, BigDecimal.TEN, 1L, "A"),
+                        "POINT_CONTRACT_COUNTER", "UK_POINT_CONTRACT_COUNTER_POINT_STATUS"),
+                Arguments.of("ChangeOutboxRepository.findByIdGreaterThanOrderByIdAsc",
+                        call(() -> outboxRepository.findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, 100))),
+                        List.of(10L, 100), "CHANGE_OUTBOX", "PRIMARY_KEY"),
+                Arguments.of("ChangeOutboxRepository.deleteOlderThan",
+                        call(() -> outboxRepository.deleteOlderThan(OUTBOX_BEFORE)),
+                        List.of(Timestamp.from(OUTBOX_BEFORE)), "CHANGE_OUTBOX", "IDX_CHANGE_OUTBOX_CREATED_AT")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryUsesIndex(String method, Runnable call, List<Object> args, String table, String index) {
+        String sql = capture(call, table);
+        assertEquals(args.size(), sql.chars().filter(c -> c == '?').count(), method + " parameters: " + sql);
+
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class, args.toArray());
+
+        assertFalse(plan.contains("PUBLIC." + table + ".tableScan"), method + " scans " + table + ":\n" + plan);
+        assertTrue(plan.contains(index), method + " does not use " + index + ":\n" + plan);
+    }
+
+    // Первый запрос к таблице, выполненный методом; изменения откатываются
+    private String capture(Runnable call, String table) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            call.run();
+        });
+        Pattern statement = Pattern.compile("\\b(from|update)\\s+" + table.toLowerCase(Locale.ROOT) + "\\b");
+        return RecordingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> statement.matcher(sql.toLowerCase(Locale.ROOT)).find())
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no statement for " + table + ": "
+                        + RecordingStatementInspector.STATEMENTS));
+    }
+
+    private Point point(Long id) {
+        return entityManager.getReference(Point.class, id);
+    }
+
+    private static Runnable call(Runnable call) {
+        return call;
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.sbt.task.service;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.sbt.task.TaskApplication;
+import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.model.repository.PointRepository;
+import ru.sbt.task.service.DataChangedEvent.ChangeType;
+
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Два экземпляра приложения на одной файловой базе H2: изменение на одном узле
+ * должно дойти до подписчиков и кэша справочников другого.
+ */
+class ClusterEventPropagationTest {
+
+    @TempDir
+    Path dbDir;
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void startNodes() {
+        String url = "jdbc:h2:file:" + dbDir.resolve("cluster").toAbsolutePath() + ";AUTO_SERVER=TRUE";
+        nodeA = startNode(url, "node-a");
+        nodeB = startNode(url, "node-b");
+    }
+
+    @AfterEach
+    void stopNodes() {
+        if (nodeB != null) nodeB.close();
+        if (nodeA != null) nodeA.close();
+    }
+
+    @Test
+    void changeOnOneNodeReachesTheOther() throws InterruptedException {
+        BlockingQueue<DataChangedEvent> received = new LinkedBlockingQueue<>();
+        nodeB.getBean(EventBus.class).register(new Object() {
+            @Subscribe
+            public void onDataChanged(DataChangedEvent event) {
+                if (event.isRemote()) received.add(event);
+            }
+        });
+
+        PointRepository repositoryA = nodeA.getBean(PointRepository.class);
+        PointRepository repositoryB = nodeB.getBean(PointRepository.class);
+
+        Point point = new Point();
+        point.setName("Центральная");
+        point.setAddress("ул. Ленина, 1");
+        point = repositoryA.save(point);
+        nodeA.getBean(EventBus.class).post(new DataChangedEvent(Point.class, point, ChangeType.CREATE));
+
+        DataChangedEvent created = received.poll(10, TimeUnit.SECONDS);
+        assertNotNull(created, "create event not propagated");
+        assertEquals(ChangeType.CREATE, created.getChangeType());
+        assertEquals(point.getId(), ((Point) created.getEntity()).getId());
+
+        // Узел B кэширует справочник, после изменения на A кэш должен быть сброшен
+        assertTrue(repositoryB.findAll().stream().anyMatch(p -> "Центральная".equals(p.getName())));
+
+        point.setName("Северная");
+        point = repositoryA.save(point);
+        nodeA.getBean(EventBus.class).post(new DataChangedEvent(Point.class, point, ChangeType.UPDATE));
+
+        DataChangedEvent updated = received.poll(10, TimeUnit.SECONDS);
+        assertNotNull(updated, "update event not propagated");
+        assertEquals("Северная", ((Point) updated.getEntity()).getName());
+        assertTrue(repositoryB.findAll().stream().anyMatch(p -> "Северная".equals(p.getName())));
+    }
+
+    private static ConfigurableApplicationContext startNode(String url, String nodeId) {
+        // properties() задает лишь значения по умолчанию, application.properties их перекрыл бы
+        return new SpringApplicationBuilder(TaskApplication.class)
+                .run(
+                        "--spring.datasource.url=" + url,
+                        "--server.port=0",
+                        "--vaadin.launch-browser=false",
+                        "--spring.jpa.show-sql=false",
+                        "--app.cluster.node-id=" + nodeId,
+                        "--app.cluster.poll-interval-millis=100");
+    }
+}
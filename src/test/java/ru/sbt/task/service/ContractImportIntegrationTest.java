@@ -0,0 +1,115 @@
+package ru.sbt.task.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.sbt.task.model.entity.Client;
+import ru.sbt.task.model.entity.ContractStatus;
+import ru.sbt.task.model.entity.Point;
+import ru.sbt.task.model.repository.ClientRepository;
+import ru.sbt.task.model.repository.ContractRepository;
+import ru.sbt.task.model.repository.EmployeeRepository;
+import ru.sbt.task.model.repository.PointRepository;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import;DB_CLOSE_DELAY=-1",
+        "app.cluster.transport=none"
+})
+class ContractImportIntegrationTest {
+
+    @Autowired
+    private ContractImportService importService;
+    @Autowired
+    private ContractCounterService counterService;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private ContractRepository contractRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private PointRepository pointRepository;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void importsFileAndKeepsCountersInSync() throws Exception {
+        Point point = new Point();
+        point.setName("Импортная");
+        point.setAddress("ул. Садовая, 1");
+        pointRepository.save(point);
+        Long adminId = employeeRepository.findByLogin("admin").orElseThrow().getId();
+
+        // Телефон из строк 2 и 3 записан по-разному, но после нормализации совпадает
+        File file = tempDir.resolve("contracts.csv").toFile();
+        Files.writeString(file.toPath(), String.join("\n",
+                "\uFEFFclient_full_name;client_phone;amount;term;issue_date;status;point;employee_login",
+                "Иванов Иван;+7 900 111-22-33;1000,50;2030-01-01;01.02.2024;Активен;Импортная;",
+                "Иванов Иван;+79001112233;2 000;2031-01-01;;Закрыт;импортная;admin",
+                "Петров Петр;+79001112244;;;;;;",
+                "Сидоров Олег;+79001112255;100;2030-01-01;;;Северная;",
+                "\"Кузнецов \"\"Младший\"\"\";+79001112266;\"300\";2030-01-01;;Активен;Импортная;"),
+                StandardCharsets.UTF_8);
+
+        ContractImportJob job = importService.start("admin", adminId, "contracts.csv", file);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertTrue(job.isFinished(), "import did not finish");
+        assertNull(job.getFailure());
+        assertFalse(file.exists());
+        assertEquals(5, job.getProcessedRows());
+        assertEquals(List.of(new ContractImportJob.RowError(5, "Точка выдачи не найдена: Северная")), job.getErrors());
+        assertEquals(1, job.getFailedRows());
+        assertEquals(3, job.getImportedClients());
+        assertEquals(3, job.getImportedContracts());
+
+        List<Client> clients = clientRepository.findByPhoneIn(List.of("+79001112233"));
+        assertEquals(1, clients.size());
+        assertEquals(2, contractRepository.findAll().stream()
+                .filter(c -> c.getClient().getId().equals(clients.get(0).getId()))
+                .count());
+        assertTrue(clientRepository.findByPhoneIn(List.of("+79001112255")).isEmpty());
+
+        Map<String, BigDecimal[]> counters = counterService.findAll().stream()
+                .filter(c -> c.getContractCount() > 0)
+                .collect(Collectors.toMap(c -> key(c.getPointId(), c.getStatus()),
+                        c -> totals(c.getContractCount(), c.getTotalAmount())));
+        Map<String, BigDecimal[]> actual = contractRepository.summarizeByPointAndStatus().stream()
+                .collect(Collectors.toMap(t -> key(t.getPointId(), t.getStatus()),
+                        t -> totals(t.getContractCount(), t.getTotalAmount())));
+        assertEquals(actual.keySet(), counters.keySet());
+        actual.forEach((key, totals) -> {
+            assertEquals(0, totals[0].compareTo(counters.get(key)[0]), key + " count");
+            assertEquals(0, totals[1].compareTo(counters.get(key)[1]), key + " amount");
+        });
+        assertEquals(0, new BigDecimal("1300.50").compareTo(
+                counters.get(key(point.getId(), ContractStatus.ACTIVE))[1]));
+    }
+
+    private static String key(Long pointId, ContractStatus status) {
+        return pointId + "/" + status;
+    }
+
+    private static BigDecimal[] totals(long count, BigDecimal amount) {
+        return new BigDecimal[]{BigDecimal.valueOf(count), amount};
+    }
+}
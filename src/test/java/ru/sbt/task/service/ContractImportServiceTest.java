@@ -0,0 +1,83 @@
+package ru.sbt.task.service;
+
+import org.junit.jupiter.api.Test;
+import ru.sbt.task.service.ContractImportService.Columns;
+import ru.sbt.task.service.ContractImportService.RawLine;
+import ru.sbt.task.service.ContractImportService.References;
+import ru.sbt.task.service.ContractImportService.ValidatedChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ContractImportServiceTest {
+
+    private static final String HEADER =
+            "client_full_name;client_phone;amount;term;issue_date;status;point;employee_login";
+    private static final References REFERENCES =
+            new References(Map.of("центральная", 1L), Map.of("petrov", 5L), 9L);
+
+    @Test
+    void parsesQuotedValuesAndEscapedQuotes() {
+        assertEquals(List.of("Иванов Иван", "+79000000001", "1000"),
+                ContractImportService.parseLine(" Иванов Иван ;+79000000001; 1000", ';'));
+        assertEquals(List.of("ООО \"Ромашка\"; филиал", "", "x"),
+                ContractImportService.parseLine("\"ООО \"\"Ромашка\"\"; филиал\";;x", ';'));
+        assertEquals(List.of("1 000,50", "2024-01-01"),
+                ContractImportService.parseLine("\"1 000,50\",2024-01-01", ','));
+        assertEquals(List.of("a;b", "c"), ContractImportService.parseLine("a;b,c", ','));
+        assertEquals(List.of(""), ContractImportService.parseLine("", ';'));
+    }
+
+    @Test
+    void headerDefinesDelimiterAndSkipsBom() {
+        Columns semicolon = Columns.of("\uFEFF" + HEADER);
+        assertEquals(';', semicolon.delimiter());
+        assertEquals(0, semicolon.indexes().get("client_full_name"));
+
+        Columns comma = Columns.of("\uFEFF\"Client_Phone\", client_full_name");
+        assertEquals(',', comma.delimiter());
+        assertEquals(Map.of("client_phone", 0, "client_full_name", 1), comma.indexes());
+
+        assertThrows(IllegalArgumentException.class, () -> Columns.of("name;phone"));
+    }
+
+    @Test
+    void reportsRowErrorsWithLineNumbers() {
+        List<String> lines = List.of(
+                "Иванов Иван;+7 (900) 000-00-01;1000;2030-01-01;01.02.2024;Активен;Центральная;petrov",
+                "Петров Петр;+79000000002;;;;;;",
+                ";+79000000003;;;;;;",
+                "Сидоров Олег;123;;;;;;",
+                "Сидоров Олег;+79000000004;abc;2030-01-01;;;Центральная;",
+                "Сидоров Олег;+79000000004;0;2030-01-01;;;Центральная;",
+                "Сидоров Олег;+79000000004;100;;;;Центральная;",
+                "Сидоров Олег;+79000000004;100;2030-01-01;2024/01/01;;Центральная;",
+                "Сидоров Олег;+79000000004;100;2030-01-01;;Черновик;Центральная;",
+                "Сидоров Олег;+79000000004;100;2030-01-01;;;Северная;",
+                "Сидоров Олег;+79000000004;100;2030-01-01;;;Центральная;ivanov");
+        List<RawLine> raw = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            raw.add(new RawLine(i + 2, lines.get(i)));
+        }
+
+        ValidatedChunk chunk = ContractImportService.validate(raw, Columns.of(HEADER), REFERENCES);
+
+        assertEquals(2, chunk.rows().size());
+        assertEquals(lines.size(), chunk.lineCount());
+        assertEquals(List.of(
+                new ContractImportJob.RowError(4, "Не указано ФИО клиента"),
+                new ContractImportJob.RowError(5, "Некорректный телефон: 123"),
+                new ContractImportJob.RowError(6, "Некорректная сумма: abc"),
+                new ContractImportJob.RowError(7, "Сумма должна быть положительной"),
+                new ContractImportJob.RowError(8, "Не указан срок договора"),
+                new ContractImportJob.RowError(9, "Некорректная дата (дата выдачи): 2024/01/01"),
+                new ContractImportJob.RowError(10, "Неизвестный статус: Черновик"),
+                new ContractImportJob.RowError(11, "Точка выдачи не найдена: Северная"),
+                new ContractImportJob.RowError(12, "Сотрудник не найден: ivanov")
+        ), chunk.errors());
+    }
+}
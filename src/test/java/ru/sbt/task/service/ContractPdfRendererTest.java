@@ -0,0 +1,65 @@
+package ru.sbt.task.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import ru.sbt.task.model.entity.Client;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.model.entity.ContractStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractPdfRendererTest {
+
+    @Test
+    void rendersContractText() throws IOException {
+        byte[] pdf = new ContractPdfRenderer().render(contract(42L));
+
+        try (PDDocument doc = PDDocument.load(pdf)) {
+            String text = new PDFTextStripper().getText(doc);
+            assertTrue(text.contains("ДОГОВОР №42"));
+            assertTrue(text.contains("Клиент: Иванов Иван"));
+        }
+    }
+
+    @Test
+    void rendersConcurrently() throws IOException {
+        ContractPdfRenderer renderer = new ContractPdfRenderer();
+
+        List<byte[]> pdfs = IntStream.range(0, 64).parallel()
+                .mapToObj(i -> {
+                    try {
+                        return renderer.render(contract((long) i));
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                })
+                .toList();
+
+        assertEquals(64, pdfs.size());
+        for (byte[] pdf : pdfs) {
+            try (PDDocument doc = PDDocument.load(pdf)) {
+                assertEquals(1, doc.getNumberOfPages());
+            }
+        }
+    }
+
+    private static Contract contract(Long id) {
+        Client client = new Client();
+        client.setFullName("Иванов Иван");
+        Contract contract = new Contract();
+        contract.setId(id);
+        contract.setClient(client);
+        contract.setAmount(new BigDecimal("150000.00"));
+        contract.setTerm(LocalDate.of(2026, 12, 31));
+        contract.setStatus(ContractStatus.ACTIVE);
+        return contract;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.sbt.task.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginAttemptLimiterTest {
+
+    @Test
+    void successfulLoginOnSharedStripeKeepsOtherFailures() {
+        // Одна полоса: все логины делят счетчик
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(3, 100, Duration.ofHours(1), 1);
+
+        assertTrue(limiter.tryAcquire("victim", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("victim", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("user", "10.0.0.2"));
+        limiter.release("user");
+
+        assertTrue(limiter.tryAcquire("victim", "10.0.0.1"));
+        assertFalse(limiter.tryAcquire("victim", "10.0.0.1"));
+    }
+}
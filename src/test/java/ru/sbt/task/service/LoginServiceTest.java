@@ -0,0 +1,62 @@
+package ru.sbt.task.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Перебор паролей к одному логину с разных адресов упирается в лимит логина, а не в пул BCrypt.
+ * Задержка входа под нагрузкой меряется в LoginServiceBenchmark (профиль benchmark).
+ */
+class LoginServiceTest {
+
+    private static final int MAX_PER_LOGIN = 10;
+
+    @Test
+    void bruteForceIsLimitedPerLogin() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        Map<String, String> hashes = Map.of(
+                "admin", encoder.encode("admin"),
+                "operator", encoder.encode("secret"));
+
+        LongAdder hashed = new LongAdder();
+        AuthenticationManager manager = auth -> {
+            hashed.increment();
+            String hash = hashes.get(auth.getName());
+            if (hash == null || !encoder.matches(String.valueOf(auth.getCredentials()), hash)) {
+                throw new BadCredentialsException("bad credentials");
+            }
+            return UsernamePasswordAuthenticationToken.authenticated(auth.getName(), null, List.of());
+        };
+
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(MAX_PER_LOGIN, 50, Duration.ofMinutes(1), 4096);
+        LoginService loginService = new LoginService(manager, limiter, 2, 32);
+        try {
+            for (int i = 0; i < 3 * MAX_PER_LOGIN; i++) {
+                // Каждая попытка с нового адреса: лимит адреса не срабатывает
+                String address = "10.0.1." + i;
+                CompletionException e = assertThrows(CompletionException.class,
+                        () -> loginService.authenticate("admin", "guess", address).join());
+                if (i >= MAX_PER_LOGIN) assertInstanceOf(LoginThrottledException.class, e.getCause());
+            }
+            assertEquals(MAX_PER_LOGIN, hashed.sum());
+
+            loginService.authenticate("operator", "secret", "192.168.0.10").join();
+            assertEquals(MAX_PER_LOGIN + 1, hashed.sum());
+        } finally {
+            loginService.shutdown();
+        }
+    }
+}
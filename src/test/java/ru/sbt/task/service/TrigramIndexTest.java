@@ -0,0 +1,52 @@
+package ru.sbt.task.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TrigramIndexTest {
+
+    @Test
+    void findsSubstringTyposAndTransliteration() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Щербаков Юрий Олегович");
+        index.put(2, "Ivanova Anna");
+        index.put(3, "Петров Пётр Петрович");
+
+        assertEquals(List.of(1L), index.search("щерба", 10));
+        assertEquals(List.of(1L), index.search("Shcherbakov", 10));
+        assertEquals(List.of(2L), index.search("Иванова", 10));
+        assertEquals(List.of(3L), index.search("петр петрович", 10));
+        // Опечатки: до одной правки на запрос из 5-8 символов после транслитерации, до двух на более длинный
+        assertEquals(List.of(1L), index.search("Щербокав", 10));
+        assertEquals(List.of(3L), index.search("Петрвич", 10));
+        assertNull(index.search("пе", 10));
+    }
+
+    @Test
+    void reflectsUpdatesAndRemovals() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Соколов Иван");
+        index.put(1, "Волков Иван");
+        index.put(2, "Соколова Мария");
+        index.remove(2);
+
+        assertEquals(List.of(), index.search("соколов", 10));
+        assertEquals(List.of(1L), index.search("волков", 10));
+        assertEquals(1, index.size());
+        assertEquals(2, index.removed());
+    }
+
+    @Test
+    void unselectiveQueryIsLeftToDatabase() {
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < 20; i++) {
+            index.put(i, "Иванов " + i);
+        }
+        assertNull(index.search("иванов", 10));
+        assertEquals(20, index.search("иванов", 100).size());
+    }
+}
@@ -0,0 +1,69 @@
+package ru.sbt.task.views;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FilterResultCacheTest {
+
+    private static final List<String> NAMES = List.of("Иванов Иван", "Иванова Анна", "Петров Петр", "Сидоров Иван");
+
+    private final List<String> queries = new ArrayList<>();
+
+    private Function<String, FilterResultCache.Result<String>> loader(boolean narrowable) {
+        return filter -> {
+            queries.add(filter);
+            List<String> items = NAMES.stream().filter(n -> n.toLowerCase().contains(filter)).toList();
+            return narrowable ? FilterResultCache.Result.narrowable(items) : FilterResultCache.Result.exactOnly(items);
+        };
+    }
+
+    @Test
+    void typingPrefixIsNarrowedInMemory() {
+        FilterResultCache<String> cache = new FilterResultCache<>(
+                FilterResultCache.containsIgnoreCase(Function.identity()), loader(true));
+
+        assertEquals(List.of("Иванов Иван", "Иванова Анна", "Сидоров Иван"), cache.get("Ива"));
+        assertEquals(List.of("Иванова Анна"), cache.get("Иванова"));
+        assertEquals(List.of("Иванов Иван", "Иванова Анна", "Сидоров Иван"), cache.get("ива "));
+        assertEquals(List.of("ива"), queries);
+    }
+
+    @Test
+    void exactOnlyResultsAreNotNarrowed() {
+        FilterResultCache<String> cache = new FilterResultCache<>(
+                FilterResultCache.containsIgnoreCase(Function.identity()), loader(false));
+
+        cache.get("ив");
+        cache.get("иван");
+        cache.get("иван");
+        assertEquals(List.of("ив", "иван"), queries);
+    }
+
+    @Test
+    void invalidationAndEvictionDropResults() {
+        FilterResultCache<String> cache = new FilterResultCache<>(2, 10,
+                FilterResultCache.containsIgnoreCase(Function.identity()), loader(true));
+
+        cache.get("петр");
+        cache.invalidate();
+        cache.get("петр");
+        cache.get("сидор");
+        cache.get("анна");
+        cache.get("петр");
+        assertEquals(List.of("петр", "петр", "сидор", "анна", "петр"), queries);
+    }
+
+    @Test
+    void returnedListIsACopy() {
+        FilterResultCache<String> cache = new FilterResultCache<>(
+                FilterResultCache.containsIgnoreCase(Function.identity()), loader(true));
+
+        cache.get("петр").clear();
+        assertEquals(List.of("Петров Петр"), cache.get("петр"));
+    }
+}
@@ -0,0 +1,48 @@
+package ru.sbt.task.views;
+
+import com.google.common.eventbus.EventBus;
+import com.vaadin.flow.shared.Registration;
+import org.junit.jupiter.api.Test;
+import ru.sbt.task.model.entity.Contract;
+import ru.sbt.task.service.DataChangedEvent;
+import ru.sbt.task.service.DataChangedEvent.ChangeType;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Задержка рассылки меряется в UiBroadcasterBenchmark (профиль benchmark)
+class UiBroadcasterTest {
+
+    private static final long WINDOW_MILLIS = 20;
+    private static final int EVENTS = 20;
+
+    @Test
+    void everyRegisteredUiReceivesEveryEvent() throws InterruptedException {
+        EventBus eventBus = new EventBus();
+        UiBroadcaster broadcaster = new UiBroadcaster(eventBus, 2, WINDOW_MILLIS);
+        broadcaster.init();
+        try {
+            CountDownLatch delivered = new CountDownLatch(2 * EVENTS);
+            AtomicInteger removedReceived = new AtomicInteger();
+            for (int i = 0; i < 2; i++) {
+                broadcaster.register(Runnable::run, batch -> batch.forEach(event -> delivered.countDown()));
+            }
+            Registration removed = broadcaster.register(Runnable::run,
+                    batch -> removedReceived.addAndGet(batch.size()));
+            removed.remove();
+            assertEquals(2, broadcaster.getRegistrationCount());
+
+            for (int i = 0; i < EVENTS; i++) {
+                eventBus.post(new DataChangedEvent(Contract.class, (long) i, ChangeType.UPDATE));
+            }
+            assertTrue(delivered.await(10, TimeUnit.SECONDS), "not all events delivered");
+            assertEquals(0, removedReceived.get());
+        } finally {
+            broadcaster.shutdown();
+        }
+    }
+}